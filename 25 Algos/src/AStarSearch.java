@@ -0,0 +1,123 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * From Wikipedia:
+ * ======================================================================================================================================
+ * A* is a graph traversal and path search algorithm, which is used in many fields of computer science due to its completeness,
+ * optimality, and optimal efficiency. [...] At each iteration of its main loop, A* needs to determine which of its paths to extend.
+ * It does so based on the cost of the path and an estimate of the cost required to extend the path all the way to the goal.
+ * ======================================================================================================================================
+ *
+ * This is Dijkstra's algorithm with one change: vertices come out of the heap ordered by dist[v] + estimate(v, target)
+ * instead of just dist[v], where estimate is a Heuristic (see Heuristic.java). Vertices in the direction of the target get
+ * visited first and vertices in the opposite direction mostly never get visited at all. With estimate = 0 this is exactly
+ * Dijkstra's algorithm stopping at the target.
+ *
+ * If the heuristic is admissible but not consistent, a vertex can be found again with a shorter distance after it has
+ * already been taken out of the heap. We just put it back in, so the answer is still right (it just costs more steps).
+ *
+ * An instance holds all the arrays needed for a query, so it can be reused for as many queries on the same graph as we like.
+ * Edge weights must not be negative and the graph has to be weighted, same as DijkstrasAlgorithm (the constructor checks).
+ */
+
+public class AStarSearch {
+    private CSRGraph csr;
+    private Heuristic heuristic;
+    private int[] dist; // distance from the source
+    private int[] prev; // previous vertex on the path from the source
+    private VertexHeap heap;
+    private int source, target;
+    private int numSettled; // number of vertices taken out of the heap in the last query
+
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, 4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+        Graph wg = new Graph(weightedEdges, 5, true, true); // create new directed, weighted graph (true, true)
+        AStarSearch search = new AStarSearch(wg, new LandmarkHeuristic(wg, 2));
+
+        int dist = search.query(0, 2);
+        Pr.x("Path from 0 to 2");
+        Pr.x("Distance: " + dist);
+        Pr.x(search.getPath().toString());
+        Pr.x("Vertices settled: " + search.getNumSettled());
+    }
+
+    /**
+     * AStarSearch - class constructor
+     *
+     * @param wg weighted graph
+     * @param heuristic estimates of the distances to the target, see Heuristic.java
+     * @throws IllegalArgumentException if wg is unweighted or has a negative edge weight
+     */
+    public AStarSearch(Graph wg, Heuristic heuristic) {
+        DijkstrasAlgorithm.checkWeights(wg);
+        this.csr = wg.getCSR();
+        this.heuristic = heuristic;
+        int n = csr.getNumNodes();
+        dist = new int[n];
+        prev = new int[n];
+        heap = new IndexedBinaryHeap(n);
+    }
+
+    /**
+     * query - find the shortest distance from source to target. Afterwards getPath() gives the path itself.
+     *
+     * @param source the vertex to start from
+     * @param target the vertex to get to
+     * @return the distance from source to target, or Integer.MAX_VALUE if there is no path
+     */
+    public int query(int source, int target) {
+        this.source = source;
+        this.target = target;
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(prev, -1);
+        heap.clear();
+        numSettled = 0;
+
+        dist[source] = 0;
+        heap.insertOrDecrease(source, heuristic.estimate(source, target));
+
+        while (!heap.isEmpty()) {
+            int u = heap.extractMin();
+            numSettled++;
+            if (u == target) {
+                return dist[target];
+            }
+
+            for (int arc = csr.getOffset(u); arc < csr.getOffset(u + 1); arc++) {
+                int v = csr.getTarget(arc);
+                int newDist = dist[u] + csr.getWeight(arc);
+                if (newDist < dist[v]) {
+                    dist[v] = newDist;
+                    prev[v] = u;
+                    heap.insertOrDecrease(v, newDist + heuristic.estimate(v, target)); // goes back in even if it was visited before
+                }
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * getPath - the shortest path found by the last query, from source to target
+     *
+     * @return List<Integer> of the vertices on the path (empty if there was no path)
+     */
+    public List<Integer> getPath() {
+        List<Integer> path = new ArrayList<Integer>();
+        if (dist[target] == Integer.MAX_VALUE) {
+            return path;
+        }
+        for (int v = target; v != source; v = prev[v]) {
+            path.add(v);
+        }
+        path.add(source);
+        Collections.reverse(path);
+        return path;
+    }
+
+    public int getNumSettled() {
+        return numSettled;
+    }
+}
@@ -25,6 +25,15 @@ import java.util.*;
  * with the current vertex as startVertex. Also, make sure when changing edge data that the numVertices value correctly reflects the
  * number of vertices in the graph.
  * ------------------------------------------------------------------------------------------------------------------------------------------
+ *
+ * The n-1 passes are only needed in the worst case. If a whole pass goes by without any distance changing, no later pass can
+ * change anything either, so we stop there. Most graphs settle in a handful of passes.
+ *
+ * findNegativeCycle() gives the vertices of a negative cycle instead of just saying there is one. If the extra pass after the
+ * n-1 passes can still lower dist[v], then following prev back from v must run into a cycle, and every cycle made of prev
+ * links has a negative total weight. Walking back n steps from v is enough to be sure we are on that cycle.
+ *
+ * See SPFA.java for a queue based version that only relaxes the arcs of vertices whose distance actually changed.
  */
 
 public class BellmanFord {
@@ -46,6 +55,9 @@ public class BellmanFord {
         } else {
             Pr.x("Graph contains a negative cycle!");
         }
+
+        int[][] negativeCycleEdges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, -4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+        Pr.x("Negative cycle: " + findNegativeCycle(dist, prev, new Graph(negativeCycleEdges, numVertices, true, true), startVertex));
     }
 
      /**
@@ -59,30 +71,90 @@ public class BellmanFord {
      * @return boolean = false if the graph contains a negative cycle and true if we can adequately calculate the 
      * shortest paths to all vertices in the graph.
      */
-    private static boolean calculateShortestPaths(int[] dist, int[] prev, Graph wg, int startVertex) {
-        
+    public static boolean calculateShortestPaths(int[] dist, int[] prev, Graph wg, int startVertex) {
+        return relaxAll(dist, prev, wg, startVertex) == -1;
+    }
+
+    /**
+     * findNegativeCycle - run Bellman-Ford from startVertex and return a negative cycle reachable from it, if there is one
+     *
+     * @param dist distances from startVertex (only meaningful if there is no negative cycle)
+     * @param prev tree structure storing paths to startVertex
+     * @param wg weighted graph object
+     * @param startVertex the vertex we begin the search from
+     * @return List<Integer> of the vertices around the cycle in order (empty if there is no negative cycle)
+     */
+    public static List<Integer> findNegativeCycle(int[] dist, int[] prev, Graph wg, int startVertex) {
+        int v = relaxAll(dist, prev, wg, startVertex);
+        if (v == -1) {
+            return new ArrayList<Integer>();
+        }
+        return extractCycle(prev, v);
+    }
+
+    /**
+     * relaxAll - the passes of Bellman-Ford, stopping early once a pass changes nothing
+     *
+     * @return -1 if there is no negative cycle, otherwise a vertex whose prev links lead into a negative cycle
+     */
+    private static int relaxAll(int[] dist, int[] prev, Graph wg, int startVertex) {
         initDataStructures(dist, prev, startVertex); // initialise the data structures we are using
-        List<Edge> edgeList = wg.getEdgeList();
+        CSRGraph csr = wg.getCSR(); // we loop through the arcs of each vertex in the CSR arrays instead of through Edge objects
         // iterate n-1 times, where n is the number of nodes. This ensures that we investigate all possible routes from startVertex to the other vertices
         for (int i = 0; i < dist.length - 1; i++) { 
-            for (Edge edge: edgeList) {
-                // If the distance of the path along the current edge is less than what we have calculated along another path to the current dest vertex
-                if (dist[edge.getSource()] + edge.getWeight() < dist[edge.getDest()]) { 
-                    dist[edge.getDest()] = dist[edge.getSource()] + edge.getWeight();
-                    prev[edge.getDest()] = edge.getSource(); // record the new path to the dest vertex
+            boolean changed = false;
+            for (int source = 0; source < csr.getNumNodes(); source++) {
+                if (dist[source] == Integer.MAX_VALUE) continue; // we have not reached this vertex yet, so there is nothing to relax (also avoids overflow)
+                for (int arc = csr.getOffset(source); arc < csr.getOffset(source + 1); arc++) {
+                    int dest = csr.getTarget(arc);
+                    // If the distance of the path along the current edge is less than what we have calculated along another path to the current dest vertex
+                    if (dist[source] + csr.getWeight(arc) < dist[dest]) { 
+                        dist[dest] = dist[source] + csr.getWeight(arc);
+                        prev[dest] = source; // record the new path to the dest vertex
+                        changed = true;
+                    }
                 }
             }
+            if (!changed) {
+                return -1; // nothing changed in this pass so nothing will change in the next one either (and there can't be a negative cycle)
+            }
         }
 
         // Check for negative cycles in graph. By virtue of having executed the previous for-loop [dist.length -1] times,
         // if any of our paths end up shorter, we must have a negative cycle in the graph.
-        for (Edge edge: edgeList) {
-            if (dist[edge.getSource()] + edge.getWeight() < dist[edge.getDest()]) {
-                return false;
+        for (int source = 0; source < csr.getNumNodes(); source++) {
+            if (dist[source] == Integer.MAX_VALUE) continue;
+            for (int arc = csr.getOffset(source); arc < csr.getOffset(source + 1); arc++) {
+                int dest = csr.getTarget(arc);
+                if (dist[source] + csr.getWeight(arc) < dist[dest]) {
+                    prev[dest] = source;
+                    return dest;
+                }
             }
         }
 
-        return true;
+        return -1;
+    }
+
+    /**
+     * extractCycle - follow the prev links from a vertex that leads into a cycle and return the cycle
+     *
+     * @param prev tree structure storing paths (which has a cycle in it)
+     * @param v a vertex whose prev links lead into the cycle
+     * @return List<Integer> of the vertices around the cycle in the direction of the edges
+     */
+    static List<Integer> extractCycle(int[] prev, int v) {
+        for (int i = 0; i < prev.length; i++) {
+            v = prev[v]; // after n steps back we have to be on the cycle
+        }
+        List<Integer> cycle = new ArrayList<Integer>();
+        int current = v;
+        do {
+            cycle.add(current);
+            current = prev[current];
+        } while (current != v);
+        Collections.reverse(cycle); // we walked it backwards
+        return cycle;
     }
 
     /**
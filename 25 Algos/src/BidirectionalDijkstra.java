@@ -0,0 +1,164 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * Bidirectional Dijkstra for single source -> single target queries. We run two searches at the same time:
+ *
+ * - a forward search from the source over the graph
+ * - a backward search from the target over the reversed graph (so it finds distances TO the target)
+ *
+ * taking one step of each in turn. Every time one search looks at an arc into a vertex the other search has already
+ * reached, we have found a path source -> ... -> vertex -> ... -> target and we remember the shortest one found so far (mu).
+ * We can stop once the distances of the last vertices taken out of the two heaps add up to at least mu: any path that
+ * is still undiscovered has to be at least that long.
+ *
+ * Roughly speaking each search only has to get half way, so on road-like graphs (where the number of vertices within
+ * distance d grows like d^2) this visits about half as many vertices as a normal Dijkstra that stops at the target.
+ *
+ * An instance holds the reversed graph and all the arrays needed for a query, so it can be reused for as many queries
+ * on the same graph as we like. Edge weights must not be negative, and the graph has to be weighted (the -1 weights of an
+ * unweighted graph would make mu come out negative), the constructor throws IllegalArgumentException otherwise.
+ */
+
+public class BidirectionalDijkstra {
+    private CSRGraph forward; // the graph
+    private CSRGraph backward; // the graph with all arcs reversed
+    private int[] distForward, distBackward; // distance from the source / to the target
+    private int[] prevForward, nextBackward; // previous vertex on the path from the source / next vertex on the path to the target
+    private VertexHeap heapForward, heapBackward;
+    private int meetingVertex; // vertex where the shortest path found so far goes from the forward to the backward search
+    private int numSettled; // number of vertices taken out of the heaps in the last query
+
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, 4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+        Graph wg = new Graph(weightedEdges, 5, true, true); // create new directed, weighted graph (true, true)
+        BidirectionalDijkstra search = new BidirectionalDijkstra(wg);
+
+        int dist = search.query(0, 2);
+        Pr.x("Path from 0 to 2");
+        Pr.x("Distance: " + dist);
+        Pr.x(search.getPath().toString());
+        Pr.x("Vertices settled: " + search.getNumSettled());
+    }
+
+    /**
+     * BidirectionalDijkstra - class constructor. Builds the reversed graph and the arrays for the queries
+     *
+     * @param wg weighted graph
+     * @throws IllegalArgumentException if wg is unweighted or has a negative edge weight
+     */
+    public BidirectionalDijkstra(Graph wg) {
+        DijkstrasAlgorithm.checkWeights(wg);
+        forward = wg.getCSR();
+        backward = forward.reverse();
+        int n = forward.getNumNodes();
+        distForward = new int[n];
+        distBackward = new int[n];
+        prevForward = new int[n];
+        nextBackward = new int[n];
+        heapForward = new IndexedBinaryHeap(n);
+        heapBackward = new IndexedBinaryHeap(n);
+    }
+
+    /**
+     * query - find the shortest distance from source to target. Afterwards getPath() gives the path itself.
+     *
+     * @param source the vertex to start from
+     * @param target the vertex to get to
+     * @return the distance from source to target, or Integer.MAX_VALUE if there is no path
+     */
+    public int query(int source, int target) {
+        Arrays.fill(distForward, Integer.MAX_VALUE);
+        Arrays.fill(distBackward, Integer.MAX_VALUE);
+        Arrays.fill(prevForward, -1);
+        Arrays.fill(nextBackward, -1);
+        heapForward.clear();
+        heapBackward.clear();
+        numSettled = 0;
+
+        distForward[source] = 0;
+        distBackward[target] = 0;
+        heapForward.insertOrDecrease(source, 0);
+        heapBackward.insertOrDecrease(target, 0);
+
+        int mu = source == target ? 0 : Integer.MAX_VALUE; // length of the shortest path found so far
+        meetingVertex = source == target ? source : -1;
+        int lastForward = 0, lastBackward = 0; // distance of the last vertex each search took out of its heap
+        boolean forwardTurn = true;
+
+        while (!heapForward.isEmpty() && !heapBackward.isEmpty()) {
+            if ((long) lastForward + lastBackward >= mu) {
+                break; // nothing left in either heap can lead to a shorter path
+            }
+
+            if (forwardTurn) {
+                int u = heapForward.extractMin();
+                lastForward = distForward[u];
+                mu = step(forward, u, distForward, prevForward, heapForward, distBackward, mu);
+            } else {
+                int u = heapBackward.extractMin();
+                lastBackward = distBackward[u];
+                mu = step(backward, u, distBackward, nextBackward, heapBackward, distForward, mu);
+            }
+            numSettled++;
+            forwardTurn = !forwardTurn;
+        }
+
+        return mu;
+    }
+
+    /**
+     * step - relax the arcs out of u for one of the two searches and check whether we have met the other search
+     *
+     * @param csr the graph this search runs over
+     * @param u the vertex just taken out of the heap
+     * @param dist distances of this search
+     * @param prev path tree of this search
+     * @param heap heap of this search
+     * @param otherDist distances of the other search
+     * @param mu length of the shortest path found so far
+     * @return the (possibly) updated mu
+     */
+    private int step(CSRGraph csr, int u, int[] dist, int[] prev, VertexHeap heap, int[] otherDist, int mu) {
+        for (int arc = csr.getOffset(u); arc < csr.getOffset(u + 1); arc++) {
+            int v = csr.getTarget(arc);
+            int newDist = dist[u] + csr.getWeight(arc);
+            if (newDist < dist[v]) {
+                dist[v] = newDist;
+                prev[v] = u;
+                heap.insertOrDecrease(v, newDist);
+            }
+            if (otherDist[v] != Integer.MAX_VALUE && (long) dist[v] + otherDist[v] < mu) { // the two searches meet at v
+                mu = dist[v] + otherDist[v];
+                meetingVertex = v;
+            }
+        }
+        return mu;
+    }
+
+    /**
+     * getPath - the shortest path found by the last query, from source to target
+     *
+     * @return List<Integer> of the vertices on the path (empty if there was no path)
+     */
+    public List<Integer> getPath() {
+        List<Integer> path = new ArrayList<Integer>();
+        if (meetingVertex < 0) {
+            return path;
+        }
+        for (int v = meetingVertex; v != -1; v = prevForward[v]) { // back from the meeting vertex to the source
+            path.add(v);
+        }
+        Collections.reverse(path);
+        for (int v = nextBackward[meetingVertex]; v != -1; v = nextBackward[v]) { // on from the meeting vertex to the target
+            path.add(v);
+        }
+        return path;
+    }
+
+    public int getNumSettled() {
+        return numSettled;
+    }
+}
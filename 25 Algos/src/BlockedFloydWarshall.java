@@ -0,0 +1,277 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * Floyd-Warshall (see FloydWarshall.java) done in tiles so that it makes good use of the CPU caches and of more than one core.
+ *
+ * Data layout: instead of int[n][n] (n separate row arrays scattered around the heap) the distances are in one int array of
+ * n * n entries, row after row: the distance from i to j is dist[i * n + j]. The next hop matrix (same as vertexConnections
+ * in FloydWarshall.java: next[i * n + j] is the vertex after i on the shortest path from i to j) is laid out the same way.
+ *
+ * Infinity: instead of Integer.MAX_VALUE, "no path" is INF = Integer.MAX_VALUE / 2. INF + INF still fits in an int, so the
+ * inner loop can just add without first checking both sides for infinity. Adding a negative weight to INF gives a bit less
+ * than INF, so at the end everything above INF / 2 is put back to INF (no path). This assumes real path lengths stay
+ * between -INF / 2 and INF / 2.
+ *
+ * Tiling: the textbook k-i-j loop goes through the whole n * n matrix for every k. Once the matrix is bigger than the cache,
+ * every one of those n passes comes from main memory. Here the matrix is cut into B x B tiles and the k's are handled B at
+ * a time. For one block of k's:
+ *
+ * 1. the diagonal tile (k, k) only needs itself, so it is done first
+ * 2. the tiles in row k and column k only need themselves and the diagonal tile, so they are done next, all in parallel
+ * 3. every other tile (i, j) only needs itself, tile (i, k) and tile (k, j), so they are all done last, all in parallel
+ *
+ * Each step works on 3 tiles of B * B ints, which fit in the cache, and does B passes over them before moving on. The
+ * distances are the same as the textbook loop gives. The inner loop only works on distances (a Math.min the JIT can turn
+ * into branch free code) and the next hops are filled in afterwards, see fillNextHops().
+ */
+
+public class BlockedFloydWarshall {
+    public static final int INF = Integer.MAX_VALUE / 2;
+    private static final int BLOCK = 64; // 64 x 64 ints = 16KB per tile, so the 3 tiles being worked on fit in L1/L2 cache
+
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 2, -2}, {2, 3, 2}, {3, 1, -1}, {1, 2, 3}, {1, 0, 4}}; // same graph as FloydWarshall.java
+        int n = 4;
+        int[] dist = new int[n * n];
+        int[] next = new int[n * n];
+        initDistanceMatrix(dist, next, n, weightedEdges);
+        if (calculateShortestPaths(dist, next, n, ForkJoinPool.commonPool())) {
+            for (int i = 0; i < n; i++) {
+                Pr.x(Arrays.toString(Arrays.copyOfRange(dist, i * n, (i + 1) * n)));
+            }
+            Pr.x(reconstructPath(0, 1, next, n).toString());
+        }
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java BlockedFloydWarshall benchmark
+        }
+    }
+
+    // the comparison with the textbook loop on 1500 vertices, which takes a while
+    private static void benchmark() {
+        // Timing against the textbook loop from FloydWarshall.java (int[][] matrices, Integer.MAX_VALUE checks) on a random graph
+        int n = 1500;
+        Random random = new Random(1);
+        int[][] randomEdges = new int[n * 10][];
+        for (int e = 0; e < randomEdges.length; e++) {
+            randomEdges[e] = new int[] {random.nextInt(n), random.nextInt(n), random.nextInt(1000)};
+        }
+        int[][] distanceMatrix = new int[n][n];
+        int[][] vertexConnections = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(distanceMatrix[i], Integer.MAX_VALUE);
+            Arrays.fill(vertexConnections[i], Integer.MAX_VALUE);
+        }
+        for (int[] edge: randomEdges) {
+            if (edge[2] < distanceMatrix[edge[0]][edge[1]]) {
+                distanceMatrix[edge[0]][edge[1]] = edge[2];
+                vertexConnections[edge[0]][edge[1]] = edge[1];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            distanceMatrix[i][i] = 0;
+            vertexConnections[i][i] = i;
+        }
+        int[] dist = new int[n * n];
+        int[] next = new int[n * n];
+        initDistanceMatrix(dist, next, n, randomEdges);
+
+        long start = System.nanoTime();
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (distanceMatrix[i][k] != Integer.MAX_VALUE && distanceMatrix[k][j] != Integer.MAX_VALUE
+                            && distanceMatrix[i][j] > distanceMatrix[i][k] + distanceMatrix[k][j]) {
+                        distanceMatrix[i][j] = distanceMatrix[i][k] + distanceMatrix[k][j];
+                        vertexConnections[i][j] = vertexConnections[i][k];
+                    }
+                }
+            }
+        }
+        Pr.x("Textbook loop: " + (System.nanoTime() - start) / 1000000 + "ms");
+        start = System.nanoTime();
+        calculateShortestPaths(dist, next, n, ForkJoinPool.commonPool());
+        Pr.x("Blocked on " + ForkJoinPool.commonPool().getParallelism() + " threads: " + (System.nanoTime() - start) / 1000000 + "ms");
+    }
+
+    /**
+     * initDistanceMatrix - set up the flat distance and next hop matrices from a list of edges (INF and -1 where there is no edge)
+     *
+     * @param dist n * n distance matrix to fill
+     * @param next n * n next hop matrix to fill
+     * @param n the number of vertices
+     * @param weightedEdges array of weighted edges ({source, dest, weight})
+     */
+    public static void initDistanceMatrix(int[] dist, int[] next, int n, int[][] weightedEdges) {
+        Arrays.fill(dist, INF);
+        Arrays.fill(next, -1);
+        for (int[] edge: weightedEdges) {
+            int ij = edge[0] * n + edge[1];
+            if (edge[2] < dist[ij]) { // keep the lightest of parallel edges
+                dist[ij] = edge[2];
+                next[ij] = edge[1];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (dist[i * n + i] > 0) { // a negative self loop stays, so it shows up as a negative cycle
+                dist[i * n + i] = 0;
+            }
+            next[i * n + i] = i;
+        }
+    }
+
+    /**
+     * calculateShortestPaths - blocked Floyd-Warshall, with the tiles of each step done in parallel on pool
+     *
+     * @param dist n * n distance matrix, set up by initDistanceMatrix. Filled with the shortest distances (INF if there is no path)
+     * @param next n * n next hop matrix, set up by initDistanceMatrix. Can be null if the paths are not needed
+     * @param n the number of vertices
+     * @param pool the threads to work on tiles with
+     * @return boolean = false if the graph has a negative cycle (the matrices are then not meaningful), true otherwise
+     */
+    public static boolean calculateShortestPaths(int[] dist, int[] next, int n, ForkJoinPool pool) {
+        int[][] edges = next == null ? null : edgesFromMatrix(dist, next, n); // the edges get written over, so keep them for the next hops
+        int numBlocks = (n + BLOCK - 1) / BLOCK;
+
+        for (int kb = 0; kb < numBlocks; kb++) {
+            final int k = kb;
+            updateTile(dist, n, k, k, k); // 1. diagonal tile
+
+            // 2. the rest of row k and column k (2 * numBlocks - 2 tiles)
+            pool.submit(() -> IntStream.range(0, numBlocks * 2).parallel().forEach(t -> {
+                int other = t / 2;
+                if (other == k) return;
+                if (t % 2 == 0) {
+                    updateTile(dist, n, k, other, k);
+                } else {
+                    updateTile(dist, n, other, k, k);
+                }
+            })).join();
+
+            // 3. everything else
+            pool.submit(() -> IntStream.range(0, numBlocks * numBlocks).parallel().forEach(t -> {
+                int ib = t / numBlocks, jb = t % numBlocks;
+                if (ib == k || jb == k) return;
+                updateTile(dist, n, ib, jb, k);
+            })).join();
+        }
+
+        // values that only got below INF by adding negative weights to INF are not real paths
+        boolean noNegativeCycles = true;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (dist[i * n + j] > INF / 2) {
+                    dist[i * n + j] = INF;
+                }
+            }
+            if (dist[i * n + i] < 0) {
+                noNegativeCycles = false;
+            }
+        }
+
+        if (next != null && noNegativeCycles) {
+            fillNextHops(dist, next, n, edges, pool);
+        }
+        return noNegativeCycles;
+    }
+
+    /**
+     * updateTile - the Floyd-Warshall loop for the k's of block kb, for the i's of block ib and j's of block jb
+     */
+    private static void updateTile(int[] dist, int n, int ib, int jb, int kb) {
+        int iEnd = Math.min(n, (ib + 1) * BLOCK), jStart = jb * BLOCK, jEnd = Math.min(n, (jb + 1) * BLOCK);
+        int kEnd = Math.min(n, (kb + 1) * BLOCK);
+
+        for (int k = kb * BLOCK; k < kEnd; k++) {
+            int kRow = k * n;
+            for (int i = ib * BLOCK; i < iEnd; i++) {
+                int iRow = i * n;
+                int ik = dist[iRow + k];
+                if (ik > INF / 2) continue; // no path to k, nothing to gain through it (skips whole rows of the tile for sparse graphs)
+                for (int j = jStart; j < jEnd; j++) {
+                    dist[iRow + j] = Math.min(dist[iRow + j], ik + dist[kRow + j]); // no infinity checks needed, INF + INF doesn't overflow
+                }
+            }
+        }
+    }
+
+    /**
+     * edgesFromMatrix - the edges set up by initDistanceMatrix, grouped by destination: edges[x] is {i0, w0, i1, w1, ...} for the
+     * edges i -> x with weight w
+     */
+    private static int[][] edgesFromMatrix(int[] dist, int[] next, int n) {
+        int[] count = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int x = 0; x < n; x++) {
+                if (x != i && next[i * n + x] == x) count[x]++;
+            }
+        }
+        int[][] edges = new int[n][];
+        for (int x = 0; x < n; x++) {
+            edges[x] = new int[count[x] * 2];
+            count[x] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int x = 0; x < n; x++) {
+                if (x != i && next[i * n + x] == x) {
+                    edges[x][count[x]++] = i;
+                    edges[x][count[x]++] = dist[i * n + x];
+                }
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * fillNextHops - work out the next hop matrix from the final distances. For each destination j we do a breadth first search
+     * backwards from j over the "tight" edges i -> x (the ones where dist[i][j] = weight + dist[x][j], so they are on a shortest
+     * path to j), and the vertex each i was found from is its next hop. Doing it this way (rather than updating next in the tiles)
+     * means the next hops always form a tree, even when there are cycles of 0 total weight and several paths of the same length.
+     */
+    private static void fillNextHops(int[] dist, int[] next, int n, int[][] edges, ForkJoinPool pool) {
+        Arrays.fill(next, -1);
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(j -> {
+            int[] queue = new int[n];
+            int head = 0, tail = 0;
+            next[j * n + j] = j;
+            queue[tail++] = j;
+            while (head < tail) {
+                int x = queue[head++];
+                int xj = dist[x * n + j];
+                for (int e = 0; e < edges[x].length; e += 2) {
+                    int i = edges[x][e];
+                    if (next[i * n + j] == -1 && dist[i * n + j] == edges[x][e + 1] + xj) {
+                        next[i * n + j] = x;
+                        queue[tail++] = i;
+                    }
+                }
+            }
+        })).join();
+    }
+
+    /**
+     * reconstructPath - rebuild the shortest path between 2 vertices from the next hop matrix
+     *
+     * @param i source vertex
+     * @param j destination vertex
+     * @param next n * n next hop matrix
+     * @param n the number of vertices
+     * @return List<Integer> of the vertices after i on the path, ending with j (empty if there is no path or i == j)
+     */
+    public static List<Integer> reconstructPath(int i, int j, int[] next, int n) {
+        List<Integer> path = new ArrayList<Integer>();
+        if (next[i * n + j] == -1) {
+            return path;
+        }
+        while (i != j) {
+            i = next[i * n + j];
+            path.add(i);
+        }
+        return path;
+    }
+}
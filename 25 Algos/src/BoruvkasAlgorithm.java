@@ -0,0 +1,177 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.IntStream;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * From Wikipedia:
+ * ======================================================================================================================================
+ * Borůvka's algorithm is a greedy algorithm for finding a minimum spanning tree in a graph, or a minimum spanning forest in the
+ * case of a graph that is not connected. The algorithm begins by finding the minimum-weight edge incident to each vertex of the
+ * graph, and adding all of those edges to the forest. Then, it repeats a similar process of finding the minimum-weight edge from
+ * each tree constructed so far to a different tree, and adding all of those edges to the forest. Each repetition of this process
+ * reduces the number of trees, within each connected component of the graph, to at most half of this former value, so after
+ * logarithmically many repetitions the process finishes.
+ * ======================================================================================================================================
+ *
+ * Kruskal (see KruskalsAlgorithm.java) has to go through the edges in order of weight, one after the other. Borůvka has no such
+ * order: within a round every component's cheapest edge can be found at the same time, so each round is spread over the
+ * threads of a ForkJoinPool:
+ *
+ * 1. Every thread takes a chunk of the edges still alive. For each edge u - v it finds the components of u and v (with a
+ *    ConcurrentUnionFind). Edges inside one component are dropped for good. Otherwise the edge is offered to both components as
+ *    their cheapest edge, with a compare-and-set "minimum" on an AtomicLongArray indexed by component root
+ * 2. Every component that got an edge unions along it. Two components can pick the same edge, but only one of the unions
+ *    succeeds, and that one adds the edge to the tree
+ * 3. Each chunk packs its surviving edges to its front, and the chunks are moved together
+ *
+ * Edges are compared as (weight << 32 | edge index), the same keys as KruskalsAlgorithm.filterKruskal(). No two edges are equal
+ * then, which is what stops two components from picking two different equal weight edges that close a cycle. It also means the
+ * minimum spanning forest is unique, so this finds exactly the same edges as Kruskal.
+ *
+ * At most log2(V) rounds, each O(E / threads + V / threads) (plus the near constant union-find work), with the edge list
+ * shrinking every round.
+ */
+
+public class BoruvkasAlgorithm {
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 1, 4}, {0, 7, 8}, {1, 2, 8}, {1, 7, 11}, {2, 3, 7}, {2, 8, 2}, {2, 5, 4}, {3, 4, 9}, {3, 5, 14}, {4, 5, 10}, {5, 6, 2}, {6, 7, 1}, {6, 8, 6}, {7, 8, 7}}; // same graph as KruskalsAlgorithm.java
+        Graph wg = new Graph(weightedEdges, 9, false, true); // create new undirected, weighted graph (false, true)
+        findMST(wg, ForkJoinPool.commonPool());
+        wg.printMinSpanningTree();
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java BoruvkasAlgorithm benchmark
+        }
+    }
+
+    // Filter-Kruskal against Borůvka on 10M edges, too big for the demo
+    private static void benchmark() {
+        // Timing: a random graph with 1M vertices and 10M edges, against Filter-Kruskal
+        Random random = new Random(1);
+        int n = 1000000, m = 10000000;
+        int[] sources = new int[m], dests = new int[m], weights = new int[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = random.nextInt(n);
+            dests[i] = random.nextInt(n);
+            weights[i] = random.nextInt(1000000);
+        }
+        Graph wg = new Graph(new CSRGraph(n, sources, dests, weights, m, false, true));
+        sources = dests = weights = null;
+        EdgeArrays edges = wg.getEdgeArrays();
+
+        long start = System.nanoTime();
+        int[] kruskal = KruskalsAlgorithm.filterKruskal(wg);
+        Pr.x("Filter-Kruskal: " + (System.nanoTime() - start) / 1000000 + "ms, weight " + totalWeight(edges, kruskal));
+
+        start = System.nanoTime();
+        int[] boruvka = minSpanningForest(wg, ForkJoinPool.commonPool());
+        long time = System.nanoTime() - start;
+        Arrays.sort(kruskal);
+        Arrays.sort(boruvka);
+        Pr.x("Boruvka on " + ForkJoinPool.commonPool().getParallelism() + " threads: " + time / 1000000 + "ms, weight " + totalWeight(edges, boruvka)
+                + ", same edges as Kruskal: " + Arrays.equals(kruskal, boruvka));
+    }
+
+    private static long totalWeight(EdgeArrays edges, int[] tree) {
+        long weight = 0;
+        for (int i: tree) {
+            weight += edges.getWeight(i);
+        }
+        return weight;
+    }
+
+    /**
+     * findMST - minimum spanning tree (forest if wg is not connected) of wg, added to wg's minimum spanning tree list
+     * (see Graph.getMinSpanningTree())
+     *
+     * @param wg undirected weighted graph
+     * @param pool the threads to do each round on
+     */
+    public static void findMST(Graph wg, ForkJoinPool pool) {
+        EdgeArrays edges = wg.getEdgeArrays();
+        for (int i: minSpanningForest(wg, pool)) {
+            wg.updateMinSpanningTree(edges.toEdge(i));
+        }
+    }
+
+    /**
+     * minSpanningForest - parallel Borůvka
+     *
+     * @param wg undirected weighted graph
+     * @param pool the threads to do each round on
+     * @return int[] indices (into wg.getEdgeArrays()) of the edges of the minimum spanning forest, in the order they were found
+     */
+    public static int[] minSpanningForest(Graph wg, ForkJoinPool pool) {
+        int n = wg.getNumNodes();
+        EdgeArrays edges = wg.getEdgeArrays();
+        int[] sources = edges.getSources(), dests = edges.getDests(), weights = edges.getWeights();
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+        AtomicLongArray cheapest = new AtomicLongArray(n); // cheapest key offered to each component root this round
+        int[] tree = new int[Math.max(0, n - 1)];
+        AtomicInteger treeSize = new AtomicInteger();
+
+        int[] alive = new int[edges.size()]; // indices of the edges that can still join two components
+        for (int i = 0; i < alive.length; i++) {
+            alive[i] = i;
+        }
+        int numAlive = alive.length;
+
+        while (numAlive > 0) {
+            final int m = numAlive;
+            int numChunks = Math.max(1, Math.min(m, pool.getParallelism() * CHUNKS_PER_THREAD));
+            int chunkSize = (m + numChunks - 1) / numChunks;
+            int[] chunkKept = new int[numChunks];
+
+            pool.submit(() -> IntStream.range(0, n).parallel().forEach(v -> cheapest.set(v, Long.MAX_VALUE))).join();
+
+            // 1. offer every edge between two components to both of them, dropping the rest (packed to the front of each chunk)
+            pool.submit(() -> IntStream.range(0, numChunks).parallel().forEach(chunk -> {
+                int from = chunk * chunkSize, to = Math.min(m, from + chunkSize);
+                int kept = from;
+                for (int k = from; k < to; k++) {
+                    int i = alive[k];
+                    int rootU = sets.find(sources[i]), rootV = sets.find(dests[i]);
+                    if (rootU == rootV) continue;
+                    long key = ((long) weights[i] << 32) | i;
+                    offer(cheapest, rootU, key);
+                    offer(cheapest, rootV, key);
+                    alive[kept++] = i;
+                }
+                chunkKept[chunk] = kept - from;
+            })).join();
+
+            // 2. every component unions along its cheapest edge. Only the first union on an edge picked by both its ends succeeds
+            pool.submit(() -> IntStream.range(0, n).parallel().forEach(v -> {
+                long key = cheapest.get(v);
+                if (key == Long.MAX_VALUE) return; // not a root, or a component with no edges out
+                int i = (int) key;
+                if (sets.union(sources[i], dests[i])) {
+                    tree[treeSize.getAndIncrement()] = i;
+                }
+            })).join();
+
+            // 3. move the chunks' surviving edges together. The edges just added to the tree go in the next round's first pass
+            numAlive = 0;
+            for (int chunk = 0; chunk < numChunks; chunk++) {
+                if (chunkKept[chunk] == 0) continue; // the last chunks can start past the end of the edges
+                System.arraycopy(alive, chunk * chunkSize, alive, numAlive, chunkKept[chunk]);
+                numAlive += chunkKept[chunk];
+            }
+        }
+        return Arrays.copyOf(tree, treeSize.get());
+    }
+
+    // lower cheapest[root] to key if key is smaller
+    private static void offer(AtomicLongArray cheapest, int root, long key) {
+        long current = cheapest.get(root);
+        while (key < current && !cheapest.compareAndSet(root, current, key)) {
+            current = cheapest.get(root);
+        }
+    }
+}
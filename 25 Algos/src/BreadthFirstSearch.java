@@ -78,11 +78,11 @@ public class BreadthFirstSearch {
      * breadthFirstSearchIterative - implementation of Breadth First Search algorithm using an iterative approach.
      * Prints out nodes visited in order along with the current list of nodes to visit.
      * 
-     * @param g graph containing an adjacency list
+     * @param g graph (neighbours are read from its CSR arrays)
      * @param startNode the node we are beginning the search from
      */
     public static void breadthFirstSearchIterative(Graph g, int startNode) {
-        List<List<Integer>> adjList = g.getAdjList(); // get adjacency list from graph
+        CSRGraph csr = g.getCSR(); // get CSR arrays from graph for looping through neighbours
         List<Integer> nodesVisited = new ArrayList<Integer>(); // list of nodes visited so far
         List<Integer> nodesToVisit = new ArrayList<Integer>(); // list of nodes to visit (in order)
         List<Integer> nodesNotVisited = new ArrayList<>(g.getNodeList()); // list of nodes not visited yet. we shallow copy so we don't edit what is on the object
@@ -104,10 +104,9 @@ public class BreadthFirstSearch {
             nodesNotVisited.remove(nodesNotVisited.indexOf(currentNode));
             nodesVisited.add(currentNode);
             
-            List<Integer> neighbours = adjList.get(currentNode);
-
             // Loop through neighbours of current node and add them to nodesToVisit if they are not in there yet and they have not been visited
-            for (int neighbour: neighbours) {
+            for (int arc = csr.getOffset(currentNode); arc < csr.getOffset(currentNode + 1); arc++) {
+                int neighbour = csr.getTarget(arc);
                 if (!nodesVisited.contains(neighbour) && !nodesToVisit.contains(neighbour)) {
                     nodesToVisit.add(neighbour);
                 }
@@ -121,7 +120,7 @@ public class BreadthFirstSearch {
      * breadthFirstSearchRecursive - implementation of Breadth First Search algorithm using a recursive approach.
      * Prints out nodes visited in order along with the current list of nodes to visit.
      *     
-     * @param g graph containing an adjacency list
+     * @param g graph (neighbours are read from its CSR arrays)
      * @param nodesVisited list of nodes visited so far
      * @param nodesToVisit list of nodes to visit (in order)
      * @param nodesNotVisited list of nodes not visited yet
@@ -148,10 +147,11 @@ public class BreadthFirstSearch {
         nodesNotVisited.remove(nodesNotVisited.indexOf(currentNode));
         nodesVisited.add(currentNode);
 
-        List<Integer> neighbours = g.getAdjList().get(currentNode);
+        CSRGraph csr = g.getCSR();
 
         // Loop through neighbours of current node and add them to nodesToVisit if they are not in there yet and they have not been visited
-        for (int neighbour: neighbours) {
+        for (int arc = csr.getOffset(currentNode); arc < csr.getOffset(currentNode + 1); arc++) {
+            int neighbour = csr.getTarget(arc);
             if (!nodesVisited.contains(neighbour) && !nodesToVisit.contains(neighbour)) {
                 nodesToVisit.add(neighbour);
             }
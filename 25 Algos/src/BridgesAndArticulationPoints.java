@@ -0,0 +1,118 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * From Wikipedia:
+ * ======================================================================================================================================
+ * In graph theory, a bridge, isthmus, cut-edge, or cut arc is an edge of a graph whose deletion increases the graph's number of
+ * connected components. A vertex in an undirected connected graph is an articulation point (or cut vertex) iff removing it (and
+ * edges through it) disconnects the graph.
+ * ======================================================================================================================================
+ *
+ * Both come out of one depth first search (DepthFirstTraversal.java) of an undirected graph. Each vertex gets the time it
+ * was discovered (tin), and low[v] is the earliest tin that v's DFS subtree can get back to with one arc that isn't a tree
+ * edge. For the tree edge p -> v:
+ *
+ * - if low[v] > tin[p], nothing under v gets back to p or above without the edge p - v, so it is a bridge
+ * - if low[v] >= tin[p], nothing under v gets above p without going through p, so p is an articulation point (unless p is
+ *   the root of the DFS tree, which is one exactly when it has more than one child in the tree)
+ *
+ * In an undirected graph the arc from v back to its parent is not a way back up (it is the tree edge itself), so the first
+ * one is skipped. Only the first though: a second edge between the same two vertices is a real way back, and a doubled edge
+ * is never a bridge.
+ */
+
+public class BridgesAndArticulationPoints {
+    public static void main(String args[]) {
+        int[][] edges = {{0, 1}, {1, 2}, {2, 0}, {1, 3}, {3, 4}, {4, 5}, {5, 3}, {5, 6}, {7, 8}};
+        Graph g = new Graph(edges, 9, false, false); // create new undirected, unweighted graph (false, false)
+
+        List<String> bridges = new ArrayList<String>();
+        for (int[] bridge: findBridges(g)) {
+            bridges.add(Arrays.toString(bridge));
+        }
+        Pr.x("Bridges: " + bridges);
+
+        boolean[] isArticulationPoint = findArticulationPoints(g);
+        List<Integer> articulationPoints = new ArrayList<Integer>();
+        for (int v = 0; v < isArticulationPoint.length; v++) {
+            if (isArticulationPoint[v]) articulationPoints.add(v);
+        }
+        Pr.x("Articulation points: " + articulationPoints);
+    }
+
+    /**
+     * findBridges - find the edges of an undirected graph whose removal disconnects something
+     *
+     * @param g undirected graph
+     * @return List<int[]> of the bridges, each as {parent, child} in the DFS tree
+     */
+    public static List<int[]> findBridges(Graph g) {
+        LowLinks lowLinks = new LowLinks(g.getCSR().getNumNodes());
+        DepthFirstTraversal.depthFirstSearchAll(g, lowLinks);
+        return lowLinks.bridges;
+    }
+
+    /**
+     * findArticulationPoints - find the vertices of an undirected graph whose removal disconnects something
+     *
+     * @param g undirected graph
+     * @return boolean[] which is true for the articulation points
+     */
+    public static boolean[] findArticulationPoints(Graph g) {
+        LowLinks lowLinks = new LowLinks(g.getCSR().getNumNodes());
+        DepthFirstTraversal.depthFirstSearchAll(g, lowLinks);
+        return lowLinks.isArticulationPoint;
+    }
+
+    // works out tin and low for every vertex, and the bridges and articulation points from them as vertices finish
+    private static class LowLinks implements DFSVisitor {
+        int[] tin, low, parent, children;
+        boolean[] parentArcSkipped;
+        boolean[] isArticulationPoint;
+        List<int[]> bridges = new ArrayList<int[]>();
+        int time = 0;
+
+        LowLinks(int n) {
+            tin = new int[n];
+            low = new int[n];
+            parent = new int[n];
+            children = new int[n];
+            parentArcSkipped = new boolean[n];
+            isArticulationPoint = new boolean[n];
+        }
+
+        public void discover(int v, int p) {
+            tin[v] = low[v] = time++;
+            parent[v] = p;
+        }
+
+        public void treeEdge(int u, int v) {
+            children[u]++;
+        }
+
+        public void nonTreeEdge(int u, int v) {
+            if (v == parent[u] && !parentArcSkipped[u]) {
+                parentArcSkipped[u] = true; // the tree edge seen from the other end
+                return;
+            }
+            low[u] = Math.min(low[u], tin[v]);
+        }
+
+        public void finish(int v, int p) {
+            if (p == -1) {
+                isArticulationPoint[v] = children[v] > 1;
+                return;
+            }
+            low[p] = Math.min(low[p], low[v]);
+            if (low[v] > tin[p]) {
+                bridges.add(new int[] {p, v});
+            }
+            if (low[v] >= tin[p] && parent[p] != -1) {
+                isArticulationPoint[p] = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+import java.nio.IntBuffer;
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * From Wikipedia:
+ * ======================================================================================================================================
+ * The compressed sparse row (CSR) or compressed row storage (CRS) or Yale format represents a matrix M by three (one-dimensional)
+ * arrays, that respectively contain nonzero values, the extents of rows, and column indices. It is similar to COO, but compresses
+ * the row indices, hence the name. This format allows fast row access and matrix-vector multiplications.
+ * ======================================================================================================================================
+ *
+ * Here the "matrix" is the adjacency matrix of a graph. Instead of an nxn matrix (which needs 40GB for 100k nodes) we store:
+ *
+ * - offsets[v] .. offsets[v + 1] - 1 which is the range of arc indices belonging to vertex v (offsets has numNodes + 1 entries)
+ * - targets[arc] which is the vertex the arc points to
+ * - weights[arc] which is the weight of the arc (-1 if the graph is unweighted, same as Edge)
+ *
+ * So memory is O(V + E) and all the neighbours of a vertex sit next to each other in memory. Looping through the neighbours
+ * of v is just:
+ *
+ *      for (int arc = g.getOffset(v); arc < g.getOffset(v + 1); arc++) {
+ *          int neighbour = g.getTarget(arc);
+ *          int weight = g.getWeight(arc);
+ *      }
+ *
+ * An "arc" here is one direction of an edge. For undirected graphs each edge is stored twice (once in each direction) so that
+ * neighbour scans work the same way for directed and undirected graphs.
+ *
+ * The arcs of each vertex are sorted by target, so getEdgeWeight() can binary search the row instead of needing a dense matrix.
+ *
+ * The three arrays are held as IntBuffers. When the graph is built in memory these just wrap int[]s, but they can also be views
+ * straight onto a memory-mapped file (see GraphFile.java), in which case nothing gets copied onto the heap at all.
+ *
+ * A single mapping can be at most 2GB, so each array is kept as "segments" of SEGMENT_INTS ints (1GB) each, the last one
+ * shorter: index i is at segment i >>> SEGMENT_SHIFT, position i & SEGMENT_MASK. In-memory arrays are just sliced into
+ * segments (no copying), and GraphFile maps each segment of the file on its own.
+ */
+
+public class CSRGraph {
+    static final int SEGMENT_SHIFT = 28;
+    static final int SEGMENT_INTS = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_INTS - 1;
+
+    private int numNodes; // number of nodes in the graph
+    private IntBuffer[] offsets; // arcs of vertex v are at indices offsets[v] .. offsets[v + 1] - 1
+    private IntBuffer[] targets; // the vertex each arc points to
+    private IntBuffer[] weights; // the weight of each arc
+    private boolean isDirected;
+    private boolean isWeighted;
+    private volatile Integer minWeight; // worked out the first time getMinWeight() is called, null until then
+
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, 4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+        Graph wg = new Graph(weightedEdges, 5, true, true); // create new directed, weighted graph (true, true)
+        CSRGraph csr = wg.getCSR();
+        csr.print();
+        Pr.x("Weight of edge 4 -> 3: " + csr.getEdgeWeight(4, 3));
+    }
+
+    /**
+     * CSRGraph - class constructor. Builds the CSR arrays from a list of edges given as 3 parallel arrays.
+     * This is done with a counting sort: first count the degree of every vertex, turn the counts into offsets
+     * and then drop each arc into its slot.
+     *
+     * @param numNodes number of nodes in the graph
+     * @param sources source vertex of each edge
+     * @param dests destination vertex of each edge
+     * @param edgeWeights weight of each edge (-1 if unweighted)
+     * @param numEdges number of edges to read from the arrays
+     * @param isDirected if false, each edge is stored in both directions
+     * @param isWeighted whether the graph is weighted
+     */
+    public CSRGraph(int numNodes, int[] sources, int[] dests, int[] edgeWeights, int numEdges, boolean isDirected, boolean isWeighted) {
+        this.numNodes = numNodes;
+        this.isDirected = isDirected;
+        this.isWeighted = isWeighted;
+        int[] offsets = new int[numNodes + 1];
+
+        // count the out-degree of each vertex. We count into offsets[v + 1] so that the prefix sum below gives the start of each row
+        for (int i = 0; i < numEdges; i++) {
+            offsets[sources[i] + 1]++;
+            if (!isDirected && sources[i] != dests[i]) {
+                offsets[dests[i] + 1]++;
+            }
+        }
+        for (int v = 0; v < numNodes; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] targets = new int[offsets[numNodes]];
+        int[] weights = new int[offsets[numNodes]];
+        int[] next = Arrays.copyOf(offsets, numNodes); // next free slot in each row
+
+        for (int i = 0; i < numEdges; i++) {
+            int arc = next[sources[i]]++;
+            targets[arc] = dests[i];
+            weights[arc] = edgeWeights[i];
+            if (!isDirected && sources[i] != dests[i]) {
+                arc = next[dests[i]]++;
+                targets[arc] = sources[i];
+                weights[arc] = edgeWeights[i];
+            }
+        }
+
+        sortRows(numNodes, offsets, targets, weights);
+        this.offsets = segments(offsets);
+        this.targets = segments(targets);
+        this.weights = segments(weights);
+    }
+
+    /**
+     * CSRGraph - class constructor for CSR arrays that have been filled elsewhere (e.g. by EdgeListLoader) but whose rows
+     * have not been sorted yet. The rows get sorted in place and the arrays are then used as they are (not copied).
+     *
+     * @param numNodes number of nodes in the graph
+     * @param offsets row offsets (numNodes + 1 entries)
+     * @param targets arc targets
+     * @param weights arc weights
+     * @param isDirected whether the graph is directed
+     * @param isWeighted whether the graph is weighted
+     */
+    public CSRGraph(int numNodes, int[] offsets, int[] targets, int[] weights, boolean isDirected, boolean isWeighted) {
+        this.numNodes = numNodes;
+        this.isDirected = isDirected;
+        this.isWeighted = isWeighted;
+        sortRows(numNodes, offsets, targets, weights);
+        this.offsets = segments(offsets);
+        this.targets = segments(targets);
+        this.weights = segments(weights);
+    }
+
+    /**
+     * CSRGraph - class constructor for when the CSR arrays have already been built elsewhere (e.g. mapped from a file).
+     * The buffers are used as they are (not copied). Rows are expected to be sorted by target. Each array is given as its
+     * segments: numSegments(length) buffers of SEGMENT_INTS ints, the last one holding what is left.
+     *
+     * @param numNodes number of nodes in the graph
+     * @param offsets row offsets (numNodes + 1 entries)
+     * @param targets arc targets
+     * @param weights arc weights
+     * @param isDirected whether the graph is directed
+     * @param isWeighted whether the graph is weighted
+     */
+    public CSRGraph(int numNodes, IntBuffer[] offsets, IntBuffer[] targets, IntBuffer[] weights, boolean isDirected, boolean isWeighted) {
+        this.numNodes = numNodes;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.isDirected = isDirected;
+        this.isWeighted = isWeighted;
+    }
+
+    // number of segments an array of numInts ints is split into (always at least one, even if it is empty)
+    static int numSegments(long numInts) {
+        return (int) Math.max(1, (numInts + SEGMENT_INTS - 1) >>> SEGMENT_SHIFT);
+    }
+
+    // split an array into segments of SEGMENT_INTS ints. Each segment is a view of the array, nothing is copied
+    private static IntBuffer[] segments(int[] array) {
+        IntBuffer[] segments = new IntBuffer[numSegments(array.length)];
+        for (int s = 0; s < segments.length; s++) {
+            int from = s << SEGMENT_SHIFT;
+            segments[s] = IntBuffer.wrap(array, from, Math.min(SEGMENT_INTS, array.length - from)).slice();
+        }
+        return segments;
+    }
+
+    private static int get(IntBuffer[] segments, int i) {
+        return segments[i >>> SEGMENT_SHIFT].get(i & SEGMENT_MASK);
+    }
+
+    /**
+     * sortRows - sort the arcs of every vertex by target. Each (target, weight) pair is packed into a long so that the pairs
+     * stay together while sorting. Only one scratch array the size of the largest row is needed.
+     */
+    private static void sortRows(int numNodes, int[] offsets, int[] targets, int[] weights) {
+        int maxDegree = 0;
+        for (int v = 0; v < numNodes; v++) {
+            maxDegree = Math.max(maxDegree, offsets[v + 1] - offsets[v]);
+        }
+
+        long[] row = new long[maxDegree];
+        for (int v = 0; v < numNodes; v++) {
+            int start = offsets[v];
+            int degree = offsets[v + 1] - start;
+            if (degree < 2) continue;
+
+            for (int i = 0; i < degree; i++) {
+                row[i] = ((long) targets[start + i] << 32) | (weights[start + i] & 0xffffffffL);
+            }
+            Arrays.sort(row, 0, degree);
+            for (int i = 0; i < degree; i++) {
+                targets[start + i] = (int) (row[i] >>> 32);
+                weights[start + i] = (int) row[i];
+            }
+        }
+    }
+
+    /**
+     * getEdgeWeight - binary search the row of source for dest. If there are parallel edges, the weight of the first one found is returned.
+     *
+     * @param source the source vertex
+     * @param dest the destination vertex
+     * @return the weight of the edge, or 0 if there is no such edge (which is what the old dense matrix gave back)
+     */
+    public int getEdgeWeight(int source, int dest) {
+        int arc = findArc(source, dest);
+        if (arc < 0) {
+            return 0;
+        }
+        return getWeight(arc);
+    }
+
+    /**
+     * findArc - binary search the (sorted) row of source for dest
+     *
+     * @param source the source vertex
+     * @param dest the destination vertex
+     * @return the index of the arc, or -1 if there is no arc from source to dest
+     */
+    public int findArc(int source, int dest) {
+        int lo = getOffset(source);
+        int hi = getOffset(source + 1) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (getTarget(mid) < dest) {
+                lo = mid + 1;
+            } else if (getTarget(mid) > dest) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * reverse - build the CSR arrays of the graph with every arc turned around, so that the row of v holds the vertices
+     * with an arc into v. Needed for searching backwards from a target (e.g. bidirectional Dijkstra). Undirected graphs
+     * are their own reverse.
+     *
+     * @return CSRGraph of the reversed graph
+     */
+    public CSRGraph reverse() {
+        if (!isDirected) {
+            return this;
+        }
+        int numArcs = getNumArcs();
+        int[] sources = new int[numArcs];
+        int[] dests = new int[numArcs];
+        int[] arcWeights = new int[numArcs];
+        for (int v = 0; v < numNodes; v++) {
+            for (int arc = getOffset(v); arc < getOffset(v + 1); arc++) {
+                sources[arc] = getTarget(arc); // turned around
+                dests[arc] = v;
+                arcWeights[arc] = getWeight(arc);
+            }
+        }
+        return new CSRGraph(numNodes, sources, dests, arcWeights, numArcs, true, isWeighted);
+    }
+
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    // number of arcs (for undirected graphs this is double the number of edges)
+    public int getNumArcs() {
+        return get(offsets, numNodes);
+    }
+
+    // first arc of vertex v. getOffset(v + 1) is one past the last arc of v
+    public int getOffset(int v) {
+        return get(offsets, v);
+    }
+
+    public int getDegree(int v) {
+        return get(offsets, v + 1) - get(offsets, v);
+    }
+
+    public int getTarget(int arc) {
+        return get(targets, arc);
+    }
+
+    public int getWeight(int arc) {
+        return get(weights, arc);
+    }
+
+    /**
+     * getMinWeight - the smallest weight of any arc (-1 for an unweighted graph with arcs, since every arc has weight -1).
+     * Scans all the arcs the first time and remembers the answer, the arrays never change after construction
+     *
+     * @return int smallest arc weight, or Integer.MAX_VALUE if there are no arcs
+     */
+    public int getMinWeight() {
+        Integer known = minWeight;
+        if (known == null) {
+            int min = Integer.MAX_VALUE;
+            for (int arc = 0; arc < getNumArcs(); arc++) {
+                min = Math.min(min, get(weights, arc));
+            }
+            minWeight = known = min; // if two threads get here at the same time they both store the same value
+        }
+        return known;
+    }
+
+    // the raw buffers, segment by segment. Used by GraphFile for writing the graph out to disk
+    public IntBuffer[] getOffsets() {
+        return duplicates(offsets);
+    }
+
+    public IntBuffer[] getTargets() {
+        return duplicates(targets);
+    }
+
+    public IntBuffer[] getWeights() {
+        return duplicates(weights);
+    }
+
+    // the caller gets its own positions to read from, the contents are shared
+    private static IntBuffer[] duplicates(IntBuffer[] segments) {
+        IntBuffer[] copies = new IntBuffer[segments.length];
+        for (int s = 0; s < segments.length; s++) {
+            copies[s] = segments[s].duplicate();
+        }
+        return copies;
+    }
+
+    public boolean isDirected() {
+        return isDirected;
+    }
+
+    public boolean isWeighted() {
+        return isWeighted;
+    }
+
+    // debug function for checking the arrays are correctly populated
+    public void print() {
+        for (int v = 0; v < numNodes; v++) {
+            StringBuilder row = new StringBuilder("NODE: " + v + " ->");
+            for (int arc = getOffset(v); arc < getOffset(v + 1); arc++) {
+                row.append(" " + getTarget(arc) + (isWeighted ? "(" + getWeight(arc) + ")" : ""));
+            }
+            Pr.x(row.toString());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.IntStream;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * A union-find (see UnionFind.java) that any number of threads can use at the same time without locks, so the edges of a
+ * big graph can be union'ed from all the cores at once (Anderson & Woll, Jayanti & Tarjan).
+ *
+ * The parent pointers are an AtomicIntegerArray and every change to them is a compare-and-set:
+ *
+ * - link: only a root is ever linked, with compareAndSet(root, root, newParent). If another thread linked that root first
+ *   the CAS fails, and we find the new roots and try again. There are no ranks here (a rank and a parent can't be changed
+ *   together in one CAS), so instead the root with the lower index always goes under the one with the higher index. The
+ *   indices only ever go up along a path, which means two threads can never link two roots under each other and make a
+ *   cycle, whatever order they run in
+ * - find: path splitting. Every vertex we pass gets pointed at its grandparent with a CAS. If the CAS fails someone else
+ *   already changed that pointer (to something higher up the same tree), which is just as good, so we don't retry
+ *
+ * Compression only ever moves a pointer to a vertex that was already further up the same tree, and linking only changes
+ * roots, so every thread always sees a forest with the right sets, just maybe with longer paths than it will be later. A
+ * union either links two roots or finds they're the same: there is no waiting on another thread, only retrying when it
+ * changed something first.
+ *
+ * Linking by index instead of rank can give taller trees for unlucky numberings, but the path splitting flattens them
+ * again as they get used, and in practice (random or real world numberings) the paths stay very short.
+ *
+ * The number of sets is kept in a LongAdder (one counter per thread under the hood), so that all the threads doing
+ * successful links aren't fighting over the same word.
+ */
+
+public class ConcurrentUnionFind {
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    private AtomicIntegerArray parent;
+    private LongAdder links; // successful links so far, the number of sets is numNodes - links
+
+    public static void main(String args[]) {
+        int[][] edges = {{0, 1}, {1, 2}, {3, 4}, {5, 6}, {6, 7}, {7, 5}, {9, 8}};
+        Graph g = new Graph(edges, 11, false, false); // 4 components plus the lone vertex 10
+        int[] components = connectedComponents(g, ForkJoinPool.commonPool());
+        Pr.x("Components: " + Arrays.toString(components));
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java ConcurrentUnionFind benchmark
+        }
+    }
+
+    // 20M edges with and without the pool, far too slow for the demo
+    private static void benchmark() {
+        // Timing: a random graph with 4M vertices and 20M edges, one thread with UnionFind against the pool with this
+        Random random = new Random(1);
+        int n = 4000000, m = 20000000;
+        int[] sources = new int[m], dests = new int[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = random.nextInt(n);
+            dests[i] = random.nextInt(n);
+        }
+        Graph g = new Graph(new CSRGraph(n, sources, dests, new int[m], m, false, false));
+        sources = dests = null;
+        EdgeArrays edgeArrays = g.getEdgeArrays();
+
+        long start = System.nanoTime();
+        UnionFind sets = new UnionFind(n);
+        for (int i = 0; i < edgeArrays.size(); i++) {
+            sets.union(edgeArrays.getSource(i), edgeArrays.getDest(i));
+        }
+        Pr.x("UnionFind, one thread: " + (System.nanoTime() - start) / 1000000 + "ms, " + sets.getCount() + " components");
+
+        start = System.nanoTime();
+        int[] components = connectedComponents(g, ForkJoinPool.commonPool());
+        long time = System.nanoTime() - start;
+        boolean same = true;
+        for (int v = 0; v < n; v++) {
+            same &= sets.connected(v, components[v]);
+        }
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            if (components[v] == v) count++;
+        }
+        Pr.x("ConcurrentUnionFind on " + ForkJoinPool.commonPool().getParallelism() + " threads: " + time / 1000000 + "ms, " + count
+                + " components, same components: " + (same && count == sets.getCount()));
+    }
+
+    /**
+     * ConcurrentUnionFind - class constructor. Every vertex starts in a set of its own
+     *
+     * @param numNodes number of vertices (0 to numNodes - 1)
+     */
+    public ConcurrentUnionFind(int numNodes) {
+        parent = new AtomicIntegerArray(numNodes);
+        for (int v = 0; v < numNodes; v++) {
+            parent.set(v, v);
+        }
+        links = new LongAdder();
+    }
+
+    /**
+     * connectedComponents - the connected components of g, with the edges union'ed in parallel on pool. For a directed
+     * graph the directions are ignored (weakly connected components)
+     *
+     * @param g graph (edges are read from its EdgeArrays, so no Edge objects are made)
+     * @param pool the threads to do the unions on
+     * @return int[] giving for each vertex a representative vertex of its component (the same for the whole component,
+     *         and a component's representative is in it: components[components[v]] == components[v])
+     */
+    public static int[] connectedComponents(Graph g, ForkJoinPool pool) {
+        int n = g.getNumNodes();
+        EdgeArrays edgeArrays = g.getEdgeArrays();
+        int[] sources = edgeArrays.getSources(), dests = edgeArrays.getDests();
+        int m = edgeArrays.size();
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+
+        int numChunks = Math.max(1, Math.min(m, pool.getParallelism() * CHUNKS_PER_THREAD));
+        int chunkSize = (m + numChunks - 1) / numChunks;
+        pool.submit(() -> IntStream.range(0, numChunks).parallel().forEach(chunk -> {
+            int to = Math.min(m, (chunk + 1) * chunkSize);
+            for (int i = chunk * chunkSize; i < to; i++) {
+                sets.union(sources[i], dests[i]);
+            }
+        })).join();
+
+        // all the unions are done, so every find now ends at the final root
+        int[] components = new int[n];
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(v -> components[v] = sets.find(v))).join();
+        return components;
+    }
+
+    /**
+     * find - the root of the set v is in, splitting the path on the way. If other threads are doing unions at the same
+     * time the root can of course have been linked under something else by the time this returns
+     *
+     * @param v a vertex
+     * @return the root of the set containing v
+     */
+    public int find(int v) {
+        int p = parent.get(v);
+        while (p != v) {
+            int grandparent = parent.get(p);
+            if (grandparent != p) {
+                parent.compareAndSet(v, p, grandparent); // if this fails someone already moved v higher up, fine either way
+            }
+            v = p;
+            p = grandparent;
+        }
+        return v;
+    }
+
+    /**
+     * union - merge the sets of u and v. Safe to call from any number of threads at once
+     *
+     * @param u a vertex
+     * @param v a vertex
+     * @return boolean = true if this call merged two sets, false if u and v were already in the same set
+     */
+    public boolean union(int u, int v) {
+        while (true) {
+            u = find(u);
+            v = find(v);
+            if (u == v) {
+                return false;
+            }
+            if (u > v) {
+                int swap = u;
+                u = v;
+                v = swap;
+            }
+            if (parent.compareAndSet(u, u, v)) { // u is the lower root, it goes under v (only if it's still a root)
+                links.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * connected - whether u and v are in the same set. With unions going on at the same time this is true if they were
+     * in the same set at some point during the call
+     */
+    public boolean connected(int u, int v) {
+        while (true) {
+            u = find(u);
+            v = find(v);
+            if (u == v) {
+                return true;
+            }
+            if (parent.get(u) == u) {
+                return false; // u was still a root after we found v's root, so they really were apart at that point
+            }
+        }
+    }
+
+    // number of sets (only exact when no unions are running)
+    public int getCount() {
+        return parent.length() - (int) links.sum();
+    }
+
+    public int getNumNodes() {
+        return parent.length();
+    }
+}
@@ -0,0 +1,681 @@
+import java.io.*;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * From Wikipedia:
+ * ======================================================================================================================================
+ * In computer science, the method of contraction hierarchies is a speed-up technique for finding the shortest-path in a graph.
+ * [...] Contraction hierarchies are built by contracting vertices one at a time. Contracting a vertex v removes it from the graph
+ * and adds "shortcut" edges between its neighbours, so that the shortest path distances between the remaining vertices stay the
+ * same. [...] After all vertices are contracted, a query is answered by a bidirectional search that only ever goes "upward" in
+ * the hierarchy.
+ * ======================================================================================================================================
+ *
+ * There are two phases:
+ *
+ * Preprocessing (done once, can be saved to a file with write() and loaded again with read()):
+ * 1. Work out a priority for every vertex: how many shortcuts contracting it would add, minus how many edges it would remove,
+ *    plus how many of its neighbours are already contracted (so contraction gets spread out over the graph). This needs a
+ *    "witness search" for every vertex and is the expensive part, so it is done in parallel.
+ * 2. Repeatedly contract the vertex with the lowest priority. To contract v, for every pair of remaining neighbours u -> v -> w
+ *    we search for another path from u to w that is no longer than u -> v -> w without going through v (a witness). If there
+ *    is none we add a shortcut u -> w (remembering that it stands for the two edges u -> v and v -> w). Contracting v changes
+ *    the priorities of its neighbours, so those are worked out again (in parallel) straight after. Priorities further away
+ *    can change too, so when a vertex comes out of the heap we check its priority once more and put it back if it got worse
+ *    ("lazy updates").
+ * 3. The order vertices were contracted in is their rank. Every edge (original or shortcut) goes from a lower to a higher
+ *    rank or the other way around, which splits the edges into an upward graph and a downward graph.
+ *
+ * Query from s to t:
+ * A bidirectional Dijkstra where the forward search from s only follows edges to higher ranks and the backward search from t
+ * only follows (reversed) edges to higher ranks. Each search stops when the distances it is taking out of its heap are no
+ * shorter than the best path found so far. Because both searches only go up, they each only see a tiny part of the graph
+ * (on road networks a few hundred vertices for a whole country). The path found uses shortcuts, which we unpack recursively
+ * into the original edges.
+ *
+ * Edge weights must not be negative, and the graph has to be weighted (the constructor throws IllegalArgumentException
+ * otherwise). The query arrays are kept on the instance, so one instance should only be queried by one thread at a time.
+ */
+
+public class ContractionHierarchy {
+    // give up a witness search after settling this many vertices (means an extra shortcut at worst). Searches that only work out a
+    // priority use a smaller limit: there are many more of them and the priority only has to be roughly right
+    private static final int WITNESS_SETTLE_LIMIT = 100;
+    private static final int SIMULATE_SETTLE_LIMIT = 20;
+
+    private int numNodes;
+    private int[] rank; // position of each vertex in the contraction order
+
+    // all the edges, original ones first and then the shortcuts
+    private int numEdges;
+    private int[] edgeSource, edgeTarget, edgeWeight;
+    private int[] edgeChild1, edgeChild2; // for a shortcut u -> w via v these are the edges u -> v and v -> w. -1 for original edges
+
+    // search graphs: upward edges out of each vertex and (reversed) upward edges into each vertex, as edge numbers in CSR form
+    private int[] upOffsets, upEdges;
+    private int[] downOffsets, downEdges;
+
+    // query state
+    private int[] distForward, distBackward;
+    private int[] parentForward, parentBackward; // edge used to reach each vertex
+    private int[] visitedForward, visitedBackward; // query number in which each vertex was last reached (so we don't have to reset the arrays)
+    private int queryNumber;
+    private VertexHeap heapForward, heapBackward;
+    private int meetingVertex;
+    private int numSettled; // number of vertices taken out of the heaps in the last query
+
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, 4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+        Graph wg = new Graph(weightedEdges, 5, true, true); // create new directed, weighted graph (true, true)
+        ContractionHierarchy ch = new ContractionHierarchy(wg);
+        Pr.x("Path from 0 to 2");
+        Pr.x("Distance: " + ch.query(0, 2));
+        for (Edge edge: ch.getPath()) {
+            edge.print();
+        }
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java ContractionHierarchy benchmark
+        }
+    }
+
+    // preprocessing time against query speed up on a 10000 vertex grid, which takes a few seconds
+    private static void benchmark() {
+        // Preprocessing time vs. query speed up on a grid shaped "road network"
+        int width = 100;
+        Graph grid = buildGrid(width, new Random(1));
+        long start = System.nanoTime();
+        ContractionHierarchy ch = new ContractionHierarchy(grid);
+        long preprocessing = System.nanoTime() - start;
+        Pr.x("Grid with " + grid.getNumNodes() + " vertices: preprocessing took " + preprocessing / 1000000 + "ms, " + (ch.numEdges - grid.getCSR().getNumArcs()) + " shortcuts");
+
+        int numQueries = 10000;
+        Random random = new Random(2);
+        int[] sources = new int[numQueries], targets = new int[numQueries];
+        for (int q = 0; q < numQueries; q++) {
+            sources[q] = random.nextInt(grid.getNumNodes());
+            targets[q] = random.nextInt(grid.getNumNodes());
+        }
+
+        int[] dist = new int[grid.getNumNodes()];
+        int[] prev = new int[grid.getNumNodes()];
+        VertexHeap heap = new IndexedBinaryHeap(grid.getNumNodes());
+        start = System.nanoTime();
+        for (int q = 0; q < numQueries; q++) {
+            DijkstrasAlgorithm.shortestPath(dist, prev, grid, sources[q], targets[q], heap);
+        }
+        long dijkstraTime = System.nanoTime() - start;
+
+        long settled = 0;
+        start = System.nanoTime();
+        for (int q = 0; q < numQueries; q++) {
+            ch.query(sources[q], targets[q]);
+            settled += ch.getNumSettled();
+        }
+        long chTime = System.nanoTime() - start;
+        Pr.x("Dijkstra: " + dijkstraTime / numQueries / 1000 + "us per query, CH: " + chTime / numQueries / 1000 + "us per query (" + settled / numQueries + " vertices settled)");
+    }
+
+    // grid graph with random weights, edges in both directions between horizontal and vertical neighbours. Every 10th row and
+    // column is a "highway" with much lower weights, which gives the graph the kind of hierarchy road networks have.
+    // Also used by the other mains that want a road-like graph to time things on
+    static Graph buildGrid(int width, Random random) {
+        List<int[]> edges = new ArrayList<int[]>();
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < width; j++) {
+                int v = i * width + j;
+                if (j + 1 < width) edges.add(new int[] {v, v + 1, i % 10 == 0 ? 2 + random.nextInt(3) : 10 + random.nextInt(20)});
+                if (i + 1 < width) edges.add(new int[] {v, v + width, j % 10 == 0 ? 2 + random.nextInt(3) : 10 + random.nextInt(20)});
+            }
+        }
+        return new Graph(edges.toArray(new int[0][]), width * width, false, true);
+    }
+
+    /**
+     * ContractionHierarchy - class constructor. Does all the preprocessing for the graph.
+     *
+     * @param wg the graph (weighted, weights must not be negative)
+     * @throws IllegalArgumentException if wg is unweighted or has a negative edge weight
+     */
+    public ContractionHierarchy(Graph wg) {
+        DijkstrasAlgorithm.checkWeights(wg); // the witness searches and queries are Dijkstra searches
+        CSRGraph csr = wg.getCSR();
+        numNodes = csr.getNumNodes();
+        int capacity = Math.max(16, csr.getNumArcs() * 2);
+        edgeSource = new int[capacity];
+        edgeTarget = new int[capacity];
+        edgeWeight = new int[capacity];
+        edgeChild1 = new int[capacity];
+        edgeChild2 = new int[capacity];
+
+        for (int v = 0; v < numNodes; v++) {
+            for (int arc = csr.getOffset(v); arc < csr.getOffset(v + 1); arc++) {
+                if (csr.getTarget(arc) != v) { // self loops are never on a shortest path
+                    addEdge(v, csr.getTarget(arc), csr.getWeight(arc), -1, -1);
+                }
+            }
+        }
+
+        new Contractor().contractAll();
+        buildSearchGraphs();
+        initQuery();
+    }
+
+    private ContractionHierarchy() {
+        // used by read()
+    }
+
+    /**
+     * query - shortest distance from source to target. Afterwards getPath() gives the path as original edges.
+     *
+     * @param source the vertex to start from
+     * @param target the vertex to get to
+     * @return the distance from source to target, or Integer.MAX_VALUE if there is no path
+     */
+    public int query(int source, int target) {
+        queryNumber++;
+        heapForward.clear();
+        heapBackward.clear();
+        reach(source, 0, -1, distForward, parentForward, visitedForward, heapForward);
+        reach(target, 0, -1, distBackward, parentBackward, visitedBackward, heapBackward);
+
+        int best = Integer.MAX_VALUE;
+        meetingVertex = -1;
+        numSettled = 0;
+        boolean forwardTurn = true;
+
+        while (!heapForward.isEmpty() || !heapBackward.isEmpty()) {
+            if (heapForward.isEmpty()) forwardTurn = false;
+            if (heapBackward.isEmpty()) forwardTurn = true;
+
+            VertexHeap heap = forwardTurn ? heapForward : heapBackward;
+            int[] dist = forwardTurn ? distForward : distBackward;
+            int[] otherDist = forwardTurn ? distBackward : distForward;
+            int[] otherVisited = forwardTurn ? visitedBackward : visitedForward;
+
+            int u = heap.extractMin();
+            numSettled++;
+            if (dist[u] >= best) {
+                heap.clear(); // everything left in this heap is at least as far, so this direction is done
+            } else {
+                if (otherVisited[u] == queryNumber && (long) dist[u] + otherDist[u] < best) {
+                    best = dist[u] + otherDist[u];
+                    meetingVertex = u;
+                }
+                if (forwardTurn) {
+                    for (int i = upOffsets[u]; i < upOffsets[u + 1]; i++) {
+                        int e = upEdges[i];
+                        reach(edgeTarget[e], dist[u] + edgeWeight[e], e, distForward, parentForward, visitedForward, heapForward);
+                    }
+                } else {
+                    for (int i = downOffsets[u]; i < downOffsets[u + 1]; i++) {
+                        int e = downEdges[i];
+                        reach(edgeSource[e], dist[u] + edgeWeight[e], e, distBackward, parentBackward, visitedBackward, heapBackward);
+                    }
+                }
+            }
+            forwardTurn = !forwardTurn;
+        }
+        return best;
+    }
+
+    // reach v with distance newDist through edge e, if that is better than what it has in this query
+    private void reach(int v, int newDist, int e, int[] dist, int[] parent, int[] visited, VertexHeap heap) {
+        if (visited[v] != queryNumber || newDist < dist[v]) {
+            visited[v] = queryNumber;
+            dist[v] = newDist;
+            parent[v] = e;
+            heap.insertOrDecrease(v, newDist);
+        }
+    }
+
+    /**
+     * getPath - the shortest path found by the last query, with all shortcuts unpacked into original edges
+     *
+     * @return List<Edge> from source to target (empty if there was no path or source == target)
+     */
+    public List<Edge> getPath() {
+        List<Edge> path = new ArrayList<Edge>();
+        if (meetingVertex < 0) {
+            return path;
+        }
+
+        List<Integer> edges = new ArrayList<Integer>();
+        for (int v = meetingVertex; parentForward[v] != -1; v = edgeSource[parentForward[v]]) {
+            edges.add(parentForward[v]);
+        }
+        Collections.reverse(edges);
+        for (int v = meetingVertex; parentBackward[v] != -1; v = edgeTarget[parentBackward[v]]) {
+            edges.add(parentBackward[v]);
+        }
+
+        for (int e: edges) {
+            unpack(e, path);
+        }
+        return path;
+    }
+
+    // add the original edges that edge e stands for to path, in order. Uses a stack rather than recursion as shortcuts can nest deeply
+    private void unpack(int e, List<Edge> path) {
+        Deque<Integer> stack = new ArrayDeque<Integer>();
+        stack.push(e);
+        while (!stack.isEmpty()) {
+            int current = stack.pop();
+            if (edgeChild1[current] == -1) {
+                path.add(new Edge(edgeSource[current], edgeTarget[current], edgeWeight[current]));
+            } else {
+                stack.push(edgeChild2[current]); // pushed first so it comes out second
+                stack.push(edgeChild1[current]);
+            }
+        }
+    }
+
+    /**
+     * upwardSearch - Dijkstra from start that only goes up the hierarchy and runs until its heap is empty. Unlike query() it
+     * doesn't stop early, so it finds every vertex that could be the meeting vertex of a query from (or to) start. Used by
+     * DistanceTable. Doesn't touch the query arrays, so any number of threads can run it at once with their own arrays.
+     *
+     * @param start the vertex to search from
+     * @param forward true to follow upward edges (search from a source), false to follow downward edges backwards (search from a target)
+     * @param dist filled with the distance to (or from) each reached vertex
+     * @param visited visited[v] is set to stamp for each reached vertex
+     * @param stamp a number not used in visited before
+     * @param heap an empty heap with room for all the vertices
+     * @param reached filled with the reached vertices
+     * @return the number of reached vertices
+     */
+    int upwardSearch(int start, boolean forward, int[] dist, int[] visited, int stamp, VertexHeap heap, int[] reached) {
+        int numReached = 0;
+        visited[start] = stamp;
+        dist[start] = 0;
+        heap.insertOrDecrease(start, 0);
+
+        while (!heap.isEmpty()) {
+            int u = heap.extractMin();
+            reached[numReached++] = u;
+            int[] offsets = forward ? upOffsets : downOffsets;
+            int[] edges = forward ? upEdges : downEdges;
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int e = edges[i];
+                int v = forward ? edgeTarget[e] : edgeSource[e];
+                int newDist = dist[u] + edgeWeight[e];
+                if (visited[v] != stamp || newDist < dist[v]) {
+                    visited[v] = stamp;
+                    dist[v] = newDist;
+                    heap.insertOrDecrease(v, newDist);
+                }
+            }
+        }
+        return numReached;
+    }
+
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    public int getNumSettled() {
+        return numSettled;
+    }
+
+    public int getNumShortcuts() {
+        int count = 0;
+        for (int e = 0; e < numEdges; e++) {
+            if (edgeChild1[e] != -1) count++;
+        }
+        return count;
+    }
+
+    /**
+     * write - save the hierarchy (ranks and all edges including shortcuts) to a file so that the preprocessing doesn't have to
+     * be done again
+     *
+     * @param fileName the file to write to
+     * @throws IOException if the file can't be written
+     */
+    public void write(String fileName) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)))) {
+            out.writeInt(numNodes);
+            out.writeInt(numEdges);
+            for (int v = 0; v < numNodes; v++) {
+                out.writeInt(rank[v]);
+            }
+            for (int e = 0; e < numEdges; e++) {
+                out.writeInt(edgeSource[e]);
+                out.writeInt(edgeTarget[e]);
+                out.writeInt(edgeWeight[e]);
+                out.writeInt(edgeChild1[e]);
+                out.writeInt(edgeChild2[e]);
+            }
+        }
+    }
+
+    /**
+     * read - load a hierarchy saved by write()
+     *
+     * @param fileName the file to read
+     * @return ContractionHierarchy ready for queries
+     * @throws IOException if the file can't be read
+     */
+    public static ContractionHierarchy read(String fileName) throws IOException {
+        ContractionHierarchy ch = new ContractionHierarchy();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)))) {
+            ch.numNodes = in.readInt();
+            ch.numEdges = in.readInt();
+            ch.rank = new int[ch.numNodes];
+            for (int v = 0; v < ch.numNodes; v++) {
+                ch.rank[v] = in.readInt();
+            }
+            ch.edgeSource = new int[ch.numEdges];
+            ch.edgeTarget = new int[ch.numEdges];
+            ch.edgeWeight = new int[ch.numEdges];
+            ch.edgeChild1 = new int[ch.numEdges];
+            ch.edgeChild2 = new int[ch.numEdges];
+            for (int e = 0; e < ch.numEdges; e++) {
+                ch.edgeSource[e] = in.readInt();
+                ch.edgeTarget[e] = in.readInt();
+                ch.edgeWeight[e] = in.readInt();
+                ch.edgeChild1[e] = in.readInt();
+                ch.edgeChild2[e] = in.readInt();
+            }
+        }
+        ch.buildSearchGraphs();
+        ch.initQuery();
+        return ch;
+    }
+
+    private int addEdge(int source, int target, int weight, int child1, int child2) {
+        if (numEdges == edgeSource.length) {
+            int capacity = numEdges * 2;
+            edgeSource = Arrays.copyOf(edgeSource, capacity);
+            edgeTarget = Arrays.copyOf(edgeTarget, capacity);
+            edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+            edgeChild1 = Arrays.copyOf(edgeChild1, capacity);
+            edgeChild2 = Arrays.copyOf(edgeChild2, capacity);
+        }
+        edgeSource[numEdges] = source;
+        edgeTarget[numEdges] = target;
+        edgeWeight[numEdges] = weight;
+        edgeChild1[numEdges] = child1;
+        edgeChild2[numEdges] = child2;
+        return numEdges++;
+    }
+
+    // split the edges into upward edges (stored at their source) and downward edges (stored reversed at their target)
+    private void buildSearchGraphs() {
+        upOffsets = new int[numNodes + 1];
+        downOffsets = new int[numNodes + 1];
+        for (int e = 0; e < numEdges; e++) {
+            if (rank[edgeSource[e]] < rank[edgeTarget[e]]) {
+                upOffsets[edgeSource[e] + 1]++;
+            } else {
+                downOffsets[edgeTarget[e] + 1]++;
+            }
+        }
+        for (int v = 0; v < numNodes; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+            downOffsets[v + 1] += downOffsets[v];
+        }
+        upEdges = new int[upOffsets[numNodes]];
+        downEdges = new int[downOffsets[numNodes]];
+        int[] nextUp = Arrays.copyOf(upOffsets, numNodes);
+        int[] nextDown = Arrays.copyOf(downOffsets, numNodes);
+        for (int e = 0; e < numEdges; e++) {
+            if (rank[edgeSource[e]] < rank[edgeTarget[e]]) {
+                upEdges[nextUp[edgeSource[e]]++] = e;
+            } else {
+                downEdges[nextDown[edgeTarget[e]]++] = e;
+            }
+        }
+    }
+
+    private void initQuery() {
+        distForward = new int[numNodes];
+        distBackward = new int[numNodes];
+        parentForward = new int[numNodes];
+        parentBackward = new int[numNodes];
+        visitedForward = new int[numNodes];
+        visitedBackward = new int[numNodes];
+        heapForward = new IndexedBinaryHeap(numNodes);
+        heapBackward = new IndexedBinaryHeap(numNodes);
+    }
+
+    /*
+     * Does the preprocessing. Keeps, for every vertex, growable lists of the numbers of the edges going out of it and coming
+     * into it. When a vertex is contracted its edges are taken out of its neighbours' lists, so the lists only ever hold edges
+     * between vertices that are still in the graph.
+     */
+    private class Contractor {
+        private int[][] outEdges, inEdges;
+        private int[] outCount, inCount;
+        private int[] contractedNeighbours; // number of neighbours of each vertex already contracted
+        private ThreadLocal<WitnessSearch> witnessSearch = ThreadLocal.withInitial(WitnessSearch::new);
+
+        Contractor() {
+            outEdges = new int[numNodes][];
+            inEdges = new int[numNodes][];
+            outCount = new int[numNodes];
+            inCount = new int[numNodes];
+            contractedNeighbours = new int[numNodes];
+            for (int v = 0; v < numNodes; v++) {
+                outEdges[v] = new int[4];
+                inEdges[v] = new int[4];
+            }
+            for (int e = 0; e < numEdges; e++) {
+                link(e);
+            }
+        }
+
+        void contractAll() {
+            rank = new int[numNodes];
+
+            // initial priorities. Every vertex needs its own witness searches, so this is done in parallel (each thread has its own search arrays)
+            int[] priority = new int[numNodes];
+            IntStream.range(0, numNodes).parallel().forEach(v -> priority[v] = priority(v));
+
+            IndexedBinaryHeap heap = new IndexedBinaryHeap(numNodes);
+            for (int v = 0; v < numNodes; v++) {
+                heap.insertOrDecrease(v, priority[v]);
+            }
+
+            int nextRank = 0;
+            while (!heap.isEmpty()) {
+                int v = heap.extractMin();
+                int newPriority = priority(v);
+                if (!heap.isEmpty() && newPriority > priority[v]) {
+                    priority[v] = newPriority; // it got worse since we last looked, so it might not be the lowest anymore
+                    heap.insertOrDecrease(v, newPriority);
+                    continue;
+                }
+
+                int[] neighbours = remainingNeighbours(v);
+                contract(v, false);
+                rank[v] = nextRank++;
+
+                // contracting v changes the neighbourhood of its neighbours, so their priorities are worked out again straight away.
+                // Working them out only reads the graph, so that is done in parallel and the heap is updated afterwards
+                int[] newPriorities = IntStream.of(neighbours).parallel().map(this::priority).toArray();
+                for (int i = 0; i < neighbours.length; i++) {
+                    if (newPriorities[i] != priority[neighbours[i]]) {
+                        priority[neighbours[i]] = newPriorities[i];
+                        heap.changeKey(neighbours[i], newPriorities[i]);
+                    }
+                }
+            }
+        }
+
+        // the vertices v has an edge to or from (each once)
+        private int[] remainingNeighbours(int v) {
+            Set<Integer> neighbours = new HashSet<Integer>();
+            for (int i = 0; i < outCount[v]; i++) neighbours.add(edgeTarget[outEdges[v][i]]);
+            for (int i = 0; i < inCount[v]; i++) neighbours.add(edgeSource[inEdges[v][i]]);
+            return neighbours.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // priority of v: shortcuts added - edges removed + neighbours already contracted. Lower gets contracted first
+        private int priority(int v) {
+            int shortcuts = contract(v, true);
+            int removed = outCount[v] + inCount[v];
+            return shortcuts - removed + contractedNeighbours[v];
+        }
+
+        /**
+         * contract - add the shortcuts needed to take v out of the graph
+         *
+         * @param v the vertex to contract
+         * @param simulate if true, don't actually add anything, just count how many shortcuts would be added
+         * @return the number of shortcuts (that would be) added
+         */
+        private int contract(int v, boolean simulate) {
+            WitnessSearch search = witnessSearch.get();
+            int shortcuts = 0;
+
+            search.clearTargets();
+            for (int j = 0; j < outCount[v]; j++) {
+                int w = edgeTarget[outEdges[v][j]];
+                search.addTarget(w);
+            }
+
+            for (int i = 0; i < inCount[v]; i++) {
+                int in = inEdges[v][i];
+                int u = edgeSource[in];
+
+                // longest path through v we might need a witness for, so the search knows when it can stop
+                int limit = -1;
+                for (int j = 0; j < outCount[v]; j++) {
+                    int w = edgeTarget[outEdges[v][j]];
+                    if (w != u) {
+                        limit = Math.max(limit, edgeWeight[in] + edgeWeight[outEdges[v][j]]);
+                    }
+                }
+                if (limit < 0) continue; // no neighbours on the other side
+
+                search.run(u, v, limit, simulate ? SIMULATE_SETTLE_LIMIT : WITNESS_SETTLE_LIMIT);
+
+                for (int j = 0; j < outCount[v]; j++) {
+                    int out = outEdges[v][j];
+                    int w = edgeTarget[out];
+                    if (w == u) continue;
+                    int viaV = edgeWeight[in] + edgeWeight[out];
+                    if (search.distanceTo(w) <= viaV) continue; // there is a witness, no shortcut needed
+
+                    shortcuts++;
+                    if (!simulate) {
+                        addShortcut(u, w, viaV, in, out);
+                    }
+                }
+            }
+
+            if (!simulate) {
+                // take v's edges out of its neighbours' lists so the lists only ever hold edges between remaining vertices
+                for (int i = 0; i < outCount[v]; i++) {
+                    int w = edgeTarget[outEdges[v][i]];
+                    contractedNeighbours[w]++;
+                    inCount[w] = unlink(inEdges[w], inCount[w], outEdges[v][i]);
+                }
+                for (int i = 0; i < inCount[v]; i++) {
+                    int u = edgeSource[inEdges[v][i]];
+                    contractedNeighbours[u]++;
+                    outCount[u] = unlink(outEdges[u], outCount[u], inEdges[v][i]);
+                }
+            }
+            return shortcuts;
+        }
+
+        // add shortcut u -> w. If there is already a u -> w edge the shortcut takes its place in the lists (if it is shorter).
+        // The old edge isn't changed, as other shortcuts may be made of it
+        private void addShortcut(int u, int w, int weight, int child1, int child2) {
+            for (int i = 0; i < outCount[u]; i++) {
+                int e = outEdges[u][i];
+                if (edgeTarget[e] == w) {
+                    if (weight >= edgeWeight[e]) return;
+                    outCount[u] = unlink(outEdges[u], outCount[u], e);
+                    inCount[w] = unlink(inEdges[w], inCount[w], e);
+                    break;
+                }
+            }
+            link(addEdge(u, w, weight, child1, child2));
+        }
+
+        // remove edge e from a list of edges (by moving the last one into its place), returning the new count
+        private int unlink(int[] edges, int count, int e) {
+            for (int i = 0; i < count; i++) {
+                if (edges[i] == e) {
+                    edges[i] = edges[count - 1];
+                    return count - 1;
+                }
+            }
+            return count;
+        }
+
+        private void link(int e) {
+            int s = edgeSource[e], t = edgeTarget[e];
+            if (outCount[s] == outEdges[s].length) outEdges[s] = Arrays.copyOf(outEdges[s], outCount[s] * 2);
+            outEdges[s][outCount[s]++] = e;
+            if (inCount[t] == inEdges[t].length) inEdges[t] = Arrays.copyOf(inEdges[t], inCount[t] * 2);
+            inEdges[t][inCount[t]++] = e;
+        }
+
+        /*
+         * Dijkstra from one vertex over the vertices that are not contracted yet, skipping the vertex being contracted, and
+         * stopping once distances go over a limit, once all the targets (the out-neighbours of the vertex being contracted) have
+         * been settled, or once too many vertices have been settled. Uses a search number stamp per vertex instead of resetting
+         * the arrays each time, as it runs a very large number of very small searches.
+         */
+        private class WitnessSearch {
+            private int[] dist = new int[numNodes];
+            private int[] visited = new int[numNodes];
+            private int searchNumber;
+            private int[] isTarget = new int[numNodes]; // targetNumber if the vertex is one of the current targets
+            private int targetNumber, numTargets;
+            private IndexedBinaryHeap heap = new IndexedBinaryHeap(numNodes);
+
+            void clearTargets() {
+                targetNumber++;
+                numTargets = 0;
+            }
+
+            void addTarget(int v) {
+                if (isTarget[v] != targetNumber) {
+                    isTarget[v] = targetNumber;
+                    numTargets++;
+                }
+            }
+
+            void run(int source, int skip, int limit, int settleLimit) {
+                searchNumber++;
+                int targetsLeft = isTarget[source] == targetNumber ? numTargets - 1 : numTargets;
+                heap.clear();
+                visited[source] = searchNumber;
+                dist[source] = 0;
+                heap.insertOrDecrease(source, 0);
+                int settled = 0;
+
+                while (!heap.isEmpty() && settled < settleLimit) {
+                    int u = heap.extractMin();
+                    settled++;
+                    if (dist[u] > limit) break;
+                    if (isTarget[u] == targetNumber && u != source && --targetsLeft == 0) break;
+                    for (int i = 0; i < outCount[u]; i++) {
+                        int e = outEdges[u][i];
+                        int w = edgeTarget[e];
+                        if (w == skip) continue;
+                        int newDist = dist[u] + edgeWeight[e];
+                        if (visited[w] != searchNumber || newDist < dist[w]) {
+                            visited[w] = searchNumber;
+                            dist[w] = newDist;
+                            heap.insertOrDecrease(w, newDist);
+                        }
+                    }
+                }
+            }
+
+            int distanceTo(int v) {
+                return visited[v] == searchNumber ? dist[v] : Integer.MAX_VALUE;
+            }
+        }
+    }
+}
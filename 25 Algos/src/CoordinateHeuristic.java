@@ -0,0 +1,26 @@
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * Heuristic for graphs where every vertex has a position (e.g. road networks). The guess is the straight line distance to
+ * the target multiplied by a scale. The scale has to be no more than the smallest (edge weight / edge length) in the
+ * graph so that the guess is never more than the real distance. For example if weights are travel times in seconds and
+ * lengths are in metres, the scale is 1 / (top speed in metres per second).
+ */
+
+public class CoordinateHeuristic implements Heuristic {
+    private double[] x, y; // position of each vertex
+    private double scale; // converts straight line distance into a lower bound on the weight of a path
+
+    public CoordinateHeuristic(double[] x, double[] y, double scale) {
+        this.x = x;
+        this.y = y;
+        this.scale = scale;
+    }
+
+    public int estimate(int vertex, int target) {
+        double dx = x[vertex] - x[target];
+        double dy = y[vertex] - y[target];
+        return (int) Math.floor(Math.sqrt(dx * dx + dy * dy) * scale); // round down so we never overestimate
+    }
+}
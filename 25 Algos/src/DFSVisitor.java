@@ -0,0 +1,36 @@
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * Callbacks for DepthFirstTraversal. The traversal does the walking (with its own stack, so deep graphs can't overflow the
+ * call stack) and tells the visitor what happens as it goes. The analyses built on DFS (strongly connected components in
+ * TarjansAlgorithm.java, bridges and articulation points in BridgesAndArticulationPoints.java) are just visitors.
+ *
+ * Every method does nothing by default, so a visitor only needs the ones it cares about. For each vertex reached, the calls
+ * come in this order: discover(v), then for each arc out of v either treeEdge(v, w) (w is new, and w's own calls all happen
+ * before the next arc of v) or nonTreeEdge(v, w) (w was reached before), and finally finish(v).
+ */
+
+public interface DFSVisitor {
+    /**
+     * discover - v is reached for the first time (pre-order)
+     *
+     * @param v the vertex
+     * @param parent the vertex v was reached from (-1 if v is the root of a DFS tree)
+     */
+    default void discover(int v, int parent) {}
+
+    // the arc u -> v leads to a vertex not reached yet, which will be discovered next
+    default void treeEdge(int u, int v) {}
+
+    // the arc u -> v leads to a vertex reached before (for undirected graphs this includes the arc back to u's parent)
+    default void nonTreeEdge(int u, int v) {}
+
+    /**
+     * finish - all arcs out of v have been looked at, and everything reached through them is finished (post-order)
+     *
+     * @param v the vertex
+     * @param parent the vertex v was reached from (-1 if v is the root of a DFS tree)
+     */
+    default void finish(int v, int parent) {}
+}
@@ -0,0 +1,253 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * From Wikipedia:
+ * ======================================================================================================================================
+ * The delta stepping algorithm is a parallel algorithm for the single-source shortest path problem. [...] Vertices are placed in
+ * buckets according to their tentative distance, where bucket i holds vertices with tentative distance in [i*delta, (i+1)*delta).
+ * Edges are classified as light (weight <= delta) or heavy (weight > delta).
+ * ======================================================================================================================================
+ *
+ * Dijkstra's algorithm takes out one vertex at a time, which leaves nothing to do in parallel. Delta-stepping takes out a
+ * whole bucket of vertices at a time (all the vertices whose distance is within delta of each other) and relaxes their
+ * edges in parallel:
+ *
+ * 1. Take the first non-empty bucket i.
+ * 2. Relax the light edges of all the vertices in it in parallel. Light edges can lead to vertices that land in bucket i
+ *    again, so repeat until bucket i stays empty. Remember every vertex that was in bucket i.
+ * 3. Relax the heavy edges of all those vertices in parallel. These can only lead to later buckets, so they only need
+ *    relaxing once, after the distances in bucket i are final.
+ *
+ * With delta = 1 (and integer weights) this is Dijkstra's algorithm with a bucket queue. With delta = infinity it is
+ * Bellman-Ford. In between, a delta around (largest weight / average degree) usually gives plenty of parallel work
+ * without too many vertices being relaxed more than once.
+ *
+ * The distance and previous vertex of each vertex are packed into one long in an AtomicLongArray: distance in the top 32
+ * bits and previous vertex in the bottom 32 bits. Relaxing an edge is then a single compare-and-set, so dist and prev always
+ * change together. Only a strictly shorter distance replaces what a vertex has (letting equal distances through a lower
+ * numbered vertex win as well would make prev go round in a circle on a cycle of 0 weight edges). So when two paths have
+ * the same length, which one prev ends up on can depend on how the threads were scheduled. The dist array is always the
+ * same as the one DijkstrasAlgorithm gives.
+ *
+ * Edge weights must not be negative, and the graph has to be weighted (an unweighted graph's edges all weigh -1). Both are
+ * checked up front with DijkstrasAlgorithm.checkWeights().
+ */
+
+public class DeltaStepping {
+    private static final int SEQUENTIAL_THRESHOLD = 256; // relax fewer vertices than this on one thread
+
+    private CSRGraph csr;
+    private int delta;
+    private AtomicLongArray best; // (dist << 32) | prev for each vertex
+    private AtomicIntegerArray queuedInPhase; // last phase in which each vertex was added to updated (so it is only added once per phase)
+    private int phase;
+    private int[] updated; // vertices whose distance went down in the current phase
+    private AtomicInteger numUpdated;
+    private TreeMap<Integer, IntList> buckets; // bucket number -> vertices in the bucket (may contain stale entries)
+
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, 4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+        int numVertices = 5;
+        Graph wg = new Graph(weightedEdges, numVertices, true, true); // create new directed, weighted graph (true, true)
+        int[] dist = new int[numVertices];
+        int[] prev = new int[numVertices];
+
+        calculateShortestPaths(dist, prev, wg, 0, 3, ForkJoinPool.commonPool());
+        Pr.x("Distances: " + Arrays.toString(dist));
+        Pr.x("Previous vertices: " + Arrays.toString(prev));
+    }
+
+    /**
+     * calculateShortestPaths - delta-stepping with a delta picked from the graph (largest weight / average degree)
+     */
+    public static void calculateShortestPaths(int[] dist, int[] prev, Graph wg, int startVertex, ForkJoinPool pool) {
+        CSRGraph csr = wg.getCSR();
+        int maxWeight = 1;
+        for (int arc = 0; arc < csr.getNumArcs(); arc++) {
+            maxWeight = Math.max(maxWeight, csr.getWeight(arc));
+        }
+        int averageDegree = Math.max(1, csr.getNumArcs() / Math.max(1, csr.getNumNodes()));
+        calculateShortestPaths(dist, prev, wg, startVertex, Math.max(1, maxWeight / averageDegree), pool);
+    }
+
+    /**
+     * calculateShortestPaths - calculates the shortest path from the startVertex to all other vertices in the graph
+     * using delta-stepping, relaxing edges in parallel on pool
+     *
+     * @param dist filled with the distances from startVertex (Integer.MAX_VALUE if unreachable)
+     * @param prev filled with the previous vertex on the shortest path to each vertex (-1 for startVertex and unreachable vertices)
+     * @param wg weighted graph object
+     * @param startVertex the vertex we begin the search from
+     * @param delta width of the buckets
+     * @param pool the threads to relax edges on
+     * @throws IllegalArgumentException if wg is unweighted or has a negative edge weight
+     */
+    public static void calculateShortestPaths(int[] dist, int[] prev, Graph wg, int startVertex, int delta, ForkJoinPool pool) {
+        DijkstrasAlgorithm.checkWeights(wg);
+        DeltaStepping search = new DeltaStepping(wg.getCSR(), delta);
+        search.run(startVertex, pool);
+        for (int v = 0; v < dist.length; v++) {
+            long packed = search.best.get(v);
+            dist[v] = (int) (packed >>> 32);
+            prev[v] = (int) packed;
+        }
+    }
+
+    private DeltaStepping(CSRGraph csr, int delta) {
+        this.csr = csr;
+        this.delta = delta;
+        int n = csr.getNumNodes();
+        best = new AtomicLongArray(n);
+        queuedInPhase = new AtomicIntegerArray(n);
+        updated = new int[n];
+        numUpdated = new AtomicInteger();
+        buckets = new TreeMap<Integer, IntList>();
+        for (int v = 0; v < n; v++) {
+            best.set(v, Long.MAX_VALUE); // dist = Integer.MAX_VALUE, prev = -1
+        }
+    }
+
+    private void run(int startVertex, ForkJoinPool pool) {
+        int n = csr.getNumNodes();
+        int[] inFrontierStamp = new int[n]; // bucket number + 1 that each vertex was last added to the frontier for
+        int[] settledStamp = new int[n]; // bucket number + 1 that each vertex was last added to the settled list for
+        IntList settled = new IntList();
+        IntList frontier = new IntList();
+
+        best.set(startVertex, 0xffffffffL); // dist = 0, prev = -1
+        bucketFor(0).add(startVertex);
+
+        while (!buckets.isEmpty()) {
+            Map.Entry<Integer, IntList> entry = buckets.pollFirstEntry();
+            int bucket = entry.getKey();
+            IntList contents = entry.getValue();
+            settled.clear();
+
+            while (contents.size > 0) {
+                // the frontier is everything in the bucket that still belongs there (its distance may have gone down since it was added)
+                frontier.clear();
+                for (int i = 0; i < contents.size; i++) {
+                    int v = contents.values[i];
+                    if (distOf(v) / delta == bucket && inFrontierStamp[v] != bucket + 1) {
+                        inFrontierStamp[v] = bucket + 1;
+                        frontier.add(v);
+                        if (settledStamp[v] != bucket + 1) {
+                            settledStamp[v] = bucket + 1;
+                            settled.add(v);
+                        }
+                    }
+                }
+                if (frontier.size == 0) break;
+
+                relaxInParallel(frontier, true, pool); // light edges
+                contents = new IntList();
+                for (int i = 0; i < numUpdated.get(); i++) {
+                    int v = updated[i];
+                    int b = distOf(v) / delta;
+                    if (b == bucket) {
+                        inFrontierStamp[v] = 0; // it is back in this bucket with a shorter distance, so it has to be relaxed again
+                        contents.add(v);
+                    } else {
+                        bucketFor(b).add(v);
+                    }
+                }
+            }
+
+            relaxInParallel(settled, false, pool); // heavy edges, once the distances in this bucket are final
+            for (int i = 0; i < numUpdated.get(); i++) {
+                bucketFor(distOf(updated[i]) / delta).add(updated[i]);
+            }
+        }
+    }
+
+    // relax the light (or heavy) edges of all the vertices in the list on the pool. Fills updated with the vertices that got closer
+    private void relaxInParallel(IntList vertices, boolean light, ForkJoinPool pool) {
+        phase++;
+        numUpdated.set(0);
+        pool.invoke(new RelaxTask(vertices.values, 0, vertices.size, light, phase));
+    }
+
+    private class RelaxTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private int[] vertices;
+        private int from, to;
+        private boolean light;
+        private int phase;
+
+        RelaxTask(int[] vertices, int from, int to, boolean light, int phase) {
+            this.vertices = vertices;
+            this.from = from;
+            this.to = to;
+            this.light = light;
+            this.phase = phase;
+        }
+
+        protected void compute() {
+            if (to - from > SEQUENTIAL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RelaxTask(vertices, from, mid, light, phase), new RelaxTask(vertices, mid, to, light, phase));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                int u = vertices[i];
+                int distU = distOf(u);
+                for (int arc = csr.getOffset(u); arc < csr.getOffset(u + 1); arc++) {
+                    int weight = csr.getWeight(arc);
+                    if ((weight <= delta) != light) continue;
+                    relax(u, csr.getTarget(arc), distU + weight);
+                }
+            }
+        }
+
+        // lower the distance of v to newDist through u, if that is better than what v has. Safe to call from any thread
+        private void relax(int u, int v, int newDist) {
+            long candidate = ((long) newDist << 32) | (u & 0xffffffffL);
+            long current = best.get(v);
+            while (newDist < (current >>> 32)) {
+                if (best.compareAndSet(v, current, candidate)) {
+                    if (queuedInPhase.getAndSet(v, phase) != phase) {
+                        updated[numUpdated.getAndIncrement()] = v;
+                    }
+                    return;
+                }
+                current = best.get(v); // someone else changed it in the meantime, try again
+            }
+        }
+    }
+
+    private int distOf(int v) {
+        return (int) (best.get(v) >>> 32);
+    }
+
+    private IntList bucketFor(int bucket) {
+        IntList list = buckets.get(bucket);
+        if (list == null) {
+            list = new IntList();
+            buckets.put(bucket, list);
+        }
+        return list;
+    }
+
+    // a growable int array
+    private static class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
@@ -69,19 +69,19 @@ public class DepthFirstSearch {
     * Prints out nodes visited in order along with the current path (stack representing which nodes we travelled along to get to currentNode)
     * Nodes are only considered visited (added to nodesVisited & removed from nodesNotVisited) once we have explored all of their neighbours.
     * 
-    * @param g graph containing an adjacency list
+    * @param g graph (neighbours are read from its CSR arrays)
     * @param startNode the node that we start exploring the graph from
     * 
     */
     public static void depthFirstSearchIterative(Graph g, int startNode) {
         int currentNode;
         List<Integer> nodesVisited, currentPath, nodesNotVisited;
-        List<List<Integer>> adjList;
+        CSRGraph csr;
 
         nodesVisited = new ArrayList<Integer>(); // list of nodes visited so far
         currentPath = new ArrayList<Integer>(); // path describing where we started, and which nodes we have travelled along to reach the current node.
         nodesNotVisited = new ArrayList<Integer>(g.getNodeList()); //nodes that we have not visited yet.
-        adjList = g.getAdjList();
+        csr = g.getCSR();
         currentPath.add(startNode);
 
         // Loop until we have visited all nodes
@@ -97,12 +97,12 @@ public class DepthFirstSearch {
             }
 
             Pr.x("CURRENT NODE: " + currentNode);
-            List<Integer> neighbours = adjList.get(currentNode);
             boolean allNeighboursVisited = true;
 
             // Loop through neighbours of current node. 
             // If we have not visited the neighbour, and the neighbour is not on our current path, add it to the current path & break
-            for (Integer neighbour: neighbours) {
+            for (int arc = csr.getOffset(currentNode); arc < csr.getOffset(currentNode + 1); arc++) {
+                int neighbour = csr.getTarget(arc);
                 if (!nodesVisited.contains(neighbour) && !currentPath.contains(neighbour)) {
                     allNeighboursVisited = false;
                     currentPath.add(neighbour);
@@ -129,7 +129,7 @@ public class DepthFirstSearch {
      * Prints out nodes visited in order along with the current path
      * Nodes are only considered visited (added to nodesVisited & removed from nodesNotVisited) once we have explored all of their neighbours.
      * 
-     * @param g graph containing an adjacency list
+     * @param g graph (neighbours are read from its CSR arrays)
      * @param nodesVisited list of nodes visited so far
      * @param currentPath path describing where we started, and which nodes we have travelled along to reach the current node.
      * @param nodesNotVisited nodes that we have not visited yet.
@@ -153,12 +153,13 @@ public class DepthFirstSearch {
 
         Pr.x("CURRENT NODE: " + currentNode);
 
-        List<Integer> neighbours = g.getAdjList().get(currentNode);
+        CSRGraph csr = g.getCSR();
         boolean allNeighboursVisited = true;
 
         // Loop through neighbours of current node. 
         // If we have not visited the neighbour, and the neighbour is not on our current path, add it to the current path & continue exploring that node
-        for (Integer neighbour: neighbours) {
+        for (int arc = csr.getOffset(currentNode); arc < csr.getOffset(currentNode + 1); arc++) {
+            int neighbour = csr.getTarget(arc);
             if (!nodesVisited.contains(neighbour) && !currentPath.contains(neighbour)) {
                 allNeighboursVisited = false;
                 currentPath.add(neighbour);
@@ -0,0 +1,137 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * Depth first search (see DepthFirstSearch.java) as an engine for other algorithms: an explicit stack instead of recursion,
+ * primitive arrays instead of lists, and callbacks (DFSVisitor) instead of printing.
+ *
+ * DepthFirstSearch.java keeps the current path and the visited nodes in Lists and checks them with contains(), which makes
+ * every step O(V) and the whole search O(V^2). The recursive version also uses one Java stack frame per node on the path,
+ * so a long enough path (a few thousand nodes) overflows the stack.
+ *
+ * Here the stack is two int arrays: the vertex in each frame, and the next arc of that vertex still to be looked at (an
+ * index into the CSR arrays, see CSRGraph.java). Going deeper pushes a frame, running out of arcs pops one. A vertex is
+ * pushed at most once, so the stack can never be more than n frames. Visited is a boolean array. Every arc is looked at
+ * once, so the whole search is O(V + E).
+ *
+ * The order is the same as recursive DFS: the arcs of each vertex in CSR order (sorted by target), going as deep as
+ * possible through each before moving to the next.
+ */
+
+public class DepthFirstTraversal {
+    private CSRGraph csr;
+    private boolean[] visited;
+    private int[] stackVertex; // vertex of each frame
+    private int[] stackArc; // next arc of that vertex to look at
+
+    public static void main(String args[]) {
+        int [][] edges = {{1, 2}, {1, 3}, {1, 4}, {2, 5}, {2, 6}, {5, 9}, {5, 10}, {4, 7}, {4, 8}, {7, 11}, {7, 12}}; // same graph as DepthFirstSearch.java
+        Graph g = new Graph(edges, 15, false, false); // create new undirected, unweighted graph (false, false)
+
+        List<Integer> preOrder = new ArrayList<Integer>();
+        List<Integer> postOrder = new ArrayList<Integer>();
+        depthFirstSearchAll(g, new DFSVisitor() {
+            public void discover(int v, int parent) {
+                preOrder.add(v);
+            }
+
+            public void finish(int v, int parent) {
+                postOrder.add(v);
+            }
+        });
+        Pr.x("Pre-order: " + preOrder);
+        Pr.x("Post-order: " + postOrder);
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java DepthFirstTraversal benchmark
+        }
+    }
+
+    // a 1M vertex path to show the explicit stack copes with any depth, slow to build
+    private static void benchmark() {
+        // A path of 1M vertices: the recursive version would need 1M stack frames
+        int n = 1000000;
+        int[][] pathEdges = new int[n - 1][];
+        for (int v = 0; v < n - 1; v++) {
+            pathEdges[v] = new int[] {v, v + 1};
+        }
+        int[] maxDepth = new int[1];
+        depthFirstSearch(new Graph(pathEdges, n, true, false), 0, new DFSVisitor() {
+            int depth = 0;
+
+            public void discover(int v, int parent) {
+                maxDepth[0] = Math.max(maxDepth[0], ++depth);
+            }
+
+            public void finish(int v, int parent) {
+                depth--;
+            }
+        });
+        Pr.x("Deepest path on a 1M vertex path graph: " + maxDepth[0]);
+    }
+
+    private DepthFirstTraversal(CSRGraph csr) {
+        this.csr = csr;
+        visited = new boolean[csr.getNumNodes()];
+        stackVertex = new int[csr.getNumNodes()];
+        stackArc = new int[csr.getNumNodes()];
+    }
+
+    /**
+     * depthFirstSearch - depth first search from startNode, reporting to visitor as it goes. Only reaches what startNode can reach
+     *
+     * @param g graph (neighbours are read from its CSR arrays)
+     * @param startNode the node we start exploring the graph from
+     * @param visitor what to tell about the search
+     */
+    public static void depthFirstSearch(Graph g, int startNode, DFSVisitor visitor) {
+        new DepthFirstTraversal(g.getCSR()).run(startNode, visitor);
+    }
+
+    /**
+     * depthFirstSearchAll - depth first search of the whole graph: whenever a search runs out, a new one starts from the
+     * lowest numbered vertex not reached yet (same as the "disconnect" handling in DepthFirstSearch.java)
+     *
+     * @param g graph (neighbours are read from its CSR arrays)
+     * @param visitor what to tell about the search (discover() gets parent -1 for the root of each new search)
+     */
+    public static void depthFirstSearchAll(Graph g, DFSVisitor visitor) {
+        DepthFirstTraversal traversal = new DepthFirstTraversal(g.getCSR());
+        for (int v = 0; v < traversal.visited.length; v++) {
+            if (!traversal.visited[v]) {
+                traversal.run(v, visitor);
+            }
+        }
+    }
+
+    // one DFS tree from root, skipping vertices already visited by earlier trees
+    private void run(int root, DFSVisitor visitor) {
+        int top = 0;
+        visited[root] = true;
+        stackVertex[0] = root;
+        stackArc[0] = csr.getOffset(root);
+        visitor.discover(root, -1);
+
+        while (top >= 0) {
+            int u = stackVertex[top];
+            if (stackArc[top] < csr.getOffset(u + 1)) {
+                int v = csr.getTarget(stackArc[top]++);
+                if (visited[v]) {
+                    visitor.nonTreeEdge(u, v);
+                } else {
+                    visitor.treeEdge(u, v);
+                    visited[v] = true;
+                    top++;
+                    stackVertex[top] = v;
+                    stackArc[top] = csr.getOffset(v);
+                    visitor.discover(v, u);
+                }
+            } else {
+                top--; // all arcs of u done, go back up
+                visitor.finish(u, top >= 0 ? stackVertex[top] : -1);
+            }
+        }
+    }
+}
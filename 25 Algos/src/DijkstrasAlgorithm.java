@@ -21,12 +21,20 @@ import java.util.*;
  * - prev[i] which stores the vertex we visited before visiting i associated with current dist[i]. This is essentially our tree as 
  *   we can track our way back to the source vertex by following j = prev[i], then we go to prev[j] and so on until we reach the 
  *   source vertex. Path reconstruction.
- * - unvisited is a list containing vertices that have not been visited yet
+ * - a priority queue (heap) of the vertices we have found a path to but have not visited yet, keyed by their current dist.
+ *   Each step we take the closest one out of the queue and visit it. When we find a shorter path to a vertex that is already
+ *   in the queue we lower its key (decrease-key) instead of adding it again, so the queue never holds more than V vertices.
  * 
- * It should be noted that it is assumed that there definitely is SOME path from arbitrary node [a] to arbitrary node [b] (the graph is connected)
- * If a disconnected graph is provided there will be some errors.
+ * The first version of this scanned a list of all unvisited vertices for the closest one every step, which is O(V^2) overall.
+ * With a binary heap it is O((V + E) log V). The heap is passed in so a different one can be used per call (see VertexHeap.java):
+ * IndexedBinaryHeap, RadixHeap (integer weights, usually the fastest) or PairingHeap. The heap and the dist/prev arrays can be
+ * reused for the next call, nothing has to be allocated again.
  * 
- * TODO: extend functionality to account for disconnected graphs
+ * Vertices that can't be reached from the start vertex are left with dist = Integer.MAX_VALUE and prev = -1.
+ * Edge weights must not be negative (use BellmanFord for that). A negative weight lets a vertex that has already been taken
+ * out of the heap get a shorter distance, and it goes back in. On an undirected graph every negative edge is a negative cycle,
+ * so that never stops. Unweighted graphs count too: their edges have weight -1 (use BreadthFirstSearch for those). Both get an
+ * IllegalArgumentException up front instead, see checkWeights().
  * 
  */
 
@@ -39,9 +47,9 @@ public class DijkstrasAlgorithm {
         Graph wg = new Graph(weightedEdges, numVertices, true, true); // create new directed, weighted graph (true, true)
         int[] dist = new int[numVertices];
         int[] prev = new int[numVertices];
-        List<Integer> unvisited = new ArrayList<Integer>();
+        VertexHeap heap = new IndexedBinaryHeap(numVertices); // could also be a RadixHeap or PairingHeap
         
-        calculateShortestPaths(dist, prev, unvisited, wg, startVertex); // do the actual calcluations
+        calculateShortestPaths(dist, prev, wg, startVertex, heap); // do the actual calcluations
         printShortestPaths(startVertex, dist, prev); // backtrack through the graph to figure out the paths
     }
 
@@ -51,36 +59,90 @@ public class DijkstrasAlgorithm {
      * 
      * @param dist distances from startVertex (while calculating this stores current min distance from start to i)
      * @param prev tree structure storing paths to startVertex
-     * @param unvisited list of unvisited vertices
      * @param wg weighted graph object
      * @param startVertex the vertex we begin the search from
+     * @param heap priority queue to use, with room for all the vertices of wg
+     * @throws IllegalArgumentException if wg is unweighted or has a negative edge weight
      */
-    private static void calculateShortestPaths(int[] dist, int[] prev, List<Integer> unvisited, Graph wg, int startVertex) {
-        initDataStructures(dist, prev, unvisited, startVertex); // initialise the data structures we are using
-        List<List<Integer>> adjList = wg.getAdjList();
-        while(!unvisited.isEmpty()) { // while we have vertices in our unvisited list
-            int minDist = Integer.MAX_VALUE; // initialise to largest possible value
-            int currentVertex = -1;
-            
-            // Go through list of currently unvisited vertices and find the one that is closest to startVertex
-            for (Integer uv: unvisited) { // uv = unvisited vertex
-                if (dist[uv] < minDist) {
-                    minDist = dist[uv];
-                    currentVertex = uv;
-                }
-            }
-            unvisited.remove(Integer.valueOf(currentVertex)); // remove currentVertex from our list of unvisited vertices
+    public static void calculateShortestPaths(int[] dist, int[] prev, Graph wg, int startVertex, VertexHeap heap) {
+        checkWeights(wg);
+        initDataStructures(dist, prev, startVertex); // initialise the data structures we are using
+        CSRGraph csr = wg.getCSR(); // neighbours and edge weights are read straight from the CSR arrays
+        heap.clear();
+        heap.insertOrDecrease(startVertex, 0);
+
+        while(!heap.isEmpty()) { // while we have vertices we have found a path to but not visited yet
+            int currentVertex = heap.extractMin(); // the closest one to startVertex. Its distance can't get any shorter now
 
             // visit all the neighbours of currentVertex
-            List<Integer> neighbours = adjList.get(currentVertex);            
-            for (Integer neighbour: neighbours) {
-                int newDist = dist[currentVertex] + wg.getEdgeWeight(currentVertex, neighbour);
+            for (int arc = csr.getOffset(currentVertex); arc < csr.getOffset(currentVertex + 1); arc++) {
+                int neighbour = csr.getTarget(arc);
+                int newDist = dist[currentVertex] + csr.getWeight(arc);
                 if (newDist < dist[neighbour]) { // if the distance to the neighbour on the current path is less than what we have before, update the distance and the path
                     dist[neighbour] = newDist;
                     prev[neighbour] = currentVertex;
+                    heap.insertOrDecrease(neighbour, newDist);
+                }
+            }
+        }
+    }
+
+    /**
+     * shortestPath - same as calculateShortestPaths(), but for when we only want the path from startVertex to one target.
+     * We stop as soon as the target is taken out of the heap (its distance can't get any shorter after that), so only the
+     * vertices closer to startVertex than the target get visited. See BidirectionalDijkstra and AStarSearch for searches
+     * that visit even fewer vertices.
+     * 
+     * @param dist distances from startVertex (only final for vertices closer than the target)
+     * @param prev tree structure storing paths to startVertex
+     * @param wg weighted graph object
+     * @param startVertex the vertex we begin the search from
+     * @param target the vertex we want the path to
+     * @param heap priority queue to use, with room for all the vertices of wg
+     * @return the distance from startVertex to target, or Integer.MAX_VALUE if there is no path
+     * @throws IllegalArgumentException if wg is unweighted or has a negative edge weight
+     */
+    public static int shortestPath(int[] dist, int[] prev, Graph wg, int startVertex, int target, VertexHeap heap) {
+        checkWeights(wg);
+        initDataStructures(dist, prev, startVertex);
+        CSRGraph csr = wg.getCSR();
+        heap.clear();
+        heap.insertOrDecrease(startVertex, 0);
+
+        while(!heap.isEmpty()) {
+            int currentVertex = heap.extractMin();
+            if (currentVertex == target) {
+                return dist[target]; // found it, no need to look any further
+            }
+
+            for (int arc = csr.getOffset(currentVertex); arc < csr.getOffset(currentVertex + 1); arc++) {
+                int neighbour = csr.getTarget(arc);
+                int newDist = dist[currentVertex] + csr.getWeight(arc);
+                if (newDist < dist[neighbour]) {
+                    dist[neighbour] = newDist;
+                    prev[neighbour] = currentVertex;
+                    heap.insertOrDecrease(neighbour, newDist);
                 }
             }
         }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * checkWeights - make sure Dijkstra (or anything built on it) can be run on wg: it has to be weighted and no weight can be
+     * negative. O(E) the first time for each graph, after that the CSR arrays remember their smallest weight
+     *
+     * @param wg the graph
+     * @throws IllegalArgumentException if wg is unweighted or has a negative edge weight
+     */
+    static void checkWeights(Graph wg) {
+        if (!wg.isWeighted()) {
+            throw new IllegalArgumentException("Graph is unweighted (every edge has weight -1), use BreadthFirstSearch for unweighted shortest paths");
+        }
+        int minWeight = wg.getCSR().getMinWeight();
+        if (minWeight < 0) {
+            throw new IllegalArgumentException("Graph has a negative edge weight (" + minWeight + "), use BellmanFord instead");
+        }
     }
 
     /**
@@ -88,15 +150,11 @@ public class DijkstrasAlgorithm {
      * 
      * @param dist distances from startVertex (while calculating this stores current min distance from start to i)
      * @param prev tree structure storing paths to startVertex
-     * @param unvisited list of unvisited vertices
      * @param startVertex the vertex we begin the search from
      */
-    private static void initDataStructures(int[] dist, int[] prev, List<Integer> unvisited, int startVertex) {
-        for (int i = 0; i < dist.length; i++) {
-            dist[i] = Integer.MAX_VALUE; // initialise to largest possible value
-            prev[i] = -1;
-            unvisited.add(i);
-        }
+    private static void initDataStructures(int[] dist, int[] prev, int startVertex) {
+        Arrays.fill(dist, Integer.MAX_VALUE); // initialise to largest possible value
+        Arrays.fill(prev, -1);
         dist[startVertex] = 0;
     }
 
@@ -112,6 +170,10 @@ public class DijkstrasAlgorithm {
         for (int i = 0; i < dist.length; i++) {
             if (i == startVertex) continue;
             Pr.x("Path from " + startVertex + " to " + i);
+            if (dist[i] == Integer.MAX_VALUE) {
+                Pr.x("NO PATH!");
+                continue;
+            }
             Pr.x("Distance: " + dist[i]);
 
             List<Integer> path = reconstructPath(startVertex, i, prev);
@@ -133,7 +195,7 @@ public class DijkstrasAlgorithm {
      * @param prev tree structure storing paths to startVertex
      * @return List<Integer> describing the shortest path from dest to startVertex
      */
-    private static List<Integer> reconstructPath(int startVertex, int dest, int[] prev) {
+    public static List<Integer> reconstructPath(int startVertex, int dest, int[] prev) {
         int currentVertex = dest;
         List<Integer> path = new ArrayList<Integer>();        
         path.add(currentVertex);
@@ -0,0 +1,261 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * Many-to-many shortest path distances: the distance from each of a list of sources to each of a list of targets, as one
+ * compact table. The distances are kept in a single int array, row by row (one row per source), so a table for 1000 x 1000
+ * vertices is 4MB with no objects in it. Integer.MAX_VALUE means there is no path.
+ *
+ * There are two ways of filling the table:
+ *
+ * 1. compute(Graph, ...): one Dijkstra per source, spread over the threads of a ForkJoinPool. Each thread keeps its own
+ *    dist array, heap and a "visited in search number" stamp per vertex, so starting a new search doesn't need an O(V)
+ *    reset of the arrays (a vertex whose stamp is not the current search number just counts as not visited yet). Each
+ *    search stops as soon as all the targets have been settled.
+ *
+ * 2. compute(ContractionHierarchy, ...): the bucket based algorithm, which shares work between the sources:
+ *    - run a backward upward search from every target t. Every vertex v it reaches gets an entry (t, dist(v -> t)) in
+ *      v's "bucket".
+ *    - run a forward upward search from every source s. For every vertex v it reaches, every entry (t, d) in v's bucket
+ *      gives a path s -> v -> t of length dist(s -> v) + d. The shortest of these is the distance from s to t (a shortest
+ *      path in a contraction hierarchy always goes up and then down, and the top vertex is reached by both searches).
+ *    Each search only visits the few hundred vertices above its start, so the whole table costs about
+ *    (sources + targets) small searches plus the bucket scans instead of sources full Dijkstras.
+ *
+ * Both run their searches in parallel on the pool they are given.
+ */
+
+public class DistanceTable {
+    private int numSources, numTargets;
+    private int[] distances; // distances[i * numTargets + j] is the distance from source i to target j
+
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, 4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+        Graph wg = new Graph(weightedEdges, 5, true, true); // create new directed, weighted graph (true, true)
+        DistanceTable table = compute(wg, new int[] {0, 1, 4}, new int[] {2, 3}, ForkJoinPool.commonPool());
+        table.print();
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java DistanceTable benchmark
+        }
+    }
+
+    // one Dijkstra per source against the two ways of filling a table, on a 10000 vertex grid
+    private static void benchmark() {
+        // Timing: one Dijkstra per source the old way vs the two ways of filling a table
+        Graph grid = ContractionHierarchy.buildGrid(100, new Random(1));
+        int n = grid.getNumNodes();
+        Random random = new Random(2);
+        int[] sources = random.ints(200, 0, n).toArray();
+        int[] targets = random.ints(200, 0, n).toArray();
+
+        long start = System.nanoTime();
+        int[] dist = new int[n];
+        int[] prev = new int[n];
+        for (int source: sources) {
+            DijkstrasAlgorithm.calculateShortestPaths(dist, prev, grid, source, new IndexedBinaryHeap(n));
+        }
+        Pr.x("Dijkstra per source: " + (System.nanoTime() - start) / 1000000 + "ms");
+
+        start = System.nanoTime();
+        DistanceTable fromGraph = compute(grid, sources, targets, ForkJoinPool.commonPool());
+        Pr.x("Table from graph: " + (System.nanoTime() - start) / 1000000 + "ms");
+
+        ContractionHierarchy ch = new ContractionHierarchy(grid);
+        start = System.nanoTime();
+        DistanceTable fromCH = compute(ch, sources, targets, ForkJoinPool.commonPool());
+        Pr.x("Table from contraction hierarchy: " + (System.nanoTime() - start) / 1000000 + "ms");
+        Pr.x("Tables the same: " + Arrays.equals(fromGraph.distances, fromCH.distances));
+    }
+
+    private DistanceTable(int numSources, int numTargets) {
+        this.numSources = numSources;
+        this.numTargets = numTargets;
+        distances = new int[numSources * numTargets];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+    }
+
+    /**
+     * compute - distance table using one Dijkstra per source (on the pool), each stopping once it has settled all the targets
+     *
+     * @param wg weighted graph object (weights must not be negative)
+     * @param sources the source vertices (the rows)
+     * @param targets the target vertices (the columns)
+     * @param pool the threads to run the searches on
+     * @return DistanceTable of the distances
+     * @throws IllegalArgumentException if wg is unweighted or has a negative edge weight
+     */
+    public static DistanceTable compute(Graph wg, int[] sources, int[] targets, ForkJoinPool pool) {
+        DijkstrasAlgorithm.checkWeights(wg);
+        CSRGraph csr = wg.getCSR();
+        int n = csr.getNumNodes();
+        DistanceTable table = new DistanceTable(sources.length, targets.length);
+
+        boolean[] isTarget = new boolean[n];
+        int numDistinctTargets = 0;
+        for (int target: targets) {
+            if (!isTarget[target]) {
+                isTarget[target] = true;
+                numDistinctTargets++;
+            }
+        }
+        final int targetsToSettle = numDistinctTargets;
+
+        ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(n));
+        runInParallel(pool, sources.length, i -> {
+            Scratch s = scratch.get();
+            int stamp = ++s.stamp;
+            s.visited[sources[i]] = stamp;
+            s.dist[sources[i]] = 0;
+            s.heap.clear();
+            s.heap.insertOrDecrease(sources[i], 0);
+            int targetsLeft = targetsToSettle;
+
+            while (!s.heap.isEmpty() && targetsLeft > 0) {
+                int u = s.heap.extractMin();
+                if (isTarget[u]) targetsLeft--;
+                for (int arc = csr.getOffset(u); arc < csr.getOffset(u + 1); arc++) {
+                    int v = csr.getTarget(arc);
+                    int newDist = s.dist[u] + csr.getWeight(arc);
+                    if (s.visited[v] != stamp || newDist < s.dist[v]) {
+                        s.visited[v] = stamp;
+                        s.dist[v] = newDist;
+                        s.heap.insertOrDecrease(v, newDist);
+                    }
+                }
+            }
+
+            for (int j = 0; j < targets.length; j++) {
+                if (s.visited[targets[j]] == stamp) {
+                    table.distances[i * targets.length + j] = s.dist[targets[j]];
+                }
+            }
+        });
+        return table;
+    }
+
+    /**
+     * compute - distance table using the bucket based algorithm on a contraction hierarchy
+     *
+     * @param ch the contraction hierarchy of the graph
+     * @param sources the source vertices (the rows)
+     * @param targets the target vertices (the columns)
+     * @param pool the threads to run the searches on
+     * @return DistanceTable of the distances
+     */
+    public static DistanceTable compute(ContractionHierarchy ch, int[] sources, int[] targets, ForkJoinPool pool) {
+        int n = ch.getNumNodes();
+        DistanceTable table = new DistanceTable(sources.length, targets.length);
+        ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(n));
+
+        // backward searches from the targets. Keep what each one reached so the buckets can be built in one go afterwards
+        int[][] reachedBy = new int[targets.length][];
+        int[][] distFrom = new int[targets.length][];
+        runInParallel(pool, targets.length, j -> {
+            Scratch s = scratch.get();
+            int numReached = ch.upwardSearch(targets[j], false, s.dist, s.visited, ++s.stamp, s.heap, s.reached);
+            reachedBy[j] = Arrays.copyOf(s.reached, numReached);
+            distFrom[j] = new int[numReached];
+            for (int k = 0; k < numReached; k++) {
+                distFrom[j][k] = s.dist[s.reached[k]];
+            }
+        });
+
+        // buckets in CSR form: the entries for vertex v are bucketTarget/bucketDist[bucketOffsets[v] .. bucketOffsets[v + 1])
+        int[] bucketOffsets = new int[n + 1];
+        for (int[] reached: reachedBy) {
+            for (int v: reached) bucketOffsets[v + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            bucketOffsets[v + 1] += bucketOffsets[v];
+        }
+        int[] bucketTarget = new int[bucketOffsets[n]];
+        int[] bucketDist = new int[bucketOffsets[n]];
+        int[] next = Arrays.copyOf(bucketOffsets, n);
+        for (int j = 0; j < targets.length; j++) {
+            for (int k = 0; k < reachedBy[j].length; k++) {
+                int slot = next[reachedBy[j][k]]++;
+                bucketTarget[slot] = j;
+                bucketDist[slot] = distFrom[j][k];
+            }
+        }
+
+        // forward searches from the sources, scanning the bucket of every vertex reached
+        runInParallel(pool, sources.length, i -> {
+            Scratch s = scratch.get();
+            int numReached = ch.upwardSearch(sources[i], true, s.dist, s.visited, ++s.stamp, s.heap, s.reached);
+            int row = i * targets.length;
+            for (int k = 0; k < numReached; k++) {
+                int v = s.reached[k];
+                for (int b = bucketOffsets[v]; b < bucketOffsets[v + 1]; b++) {
+                    int viaV = s.dist[v] + bucketDist[b];
+                    if (viaV < table.distances[row + bucketTarget[b]]) {
+                        table.distances[row + bucketTarget[b]] = viaV;
+                    }
+                }
+            }
+        });
+        return table;
+    }
+
+    // run body for 0 .. count - 1 on the pool's threads
+    private static void runInParallel(ForkJoinPool pool, int count, IntConsumer body) {
+        pool.submit(() -> IntStream.range(0, count).parallel().forEach(body)).join();
+    }
+
+    /**
+     * get - the distance from a source to a target
+     *
+     * @param sourceIndex position of the source in the sources the table was computed for
+     * @param targetIndex position of the target in the targets the table was computed for
+     * @return the distance, or Integer.MAX_VALUE if there is no path
+     */
+    public int get(int sourceIndex, int targetIndex) {
+        return distances[sourceIndex * numTargets + targetIndex];
+    }
+
+    public int getNumSources() {
+        return numSources;
+    }
+
+    public int getNumTargets() {
+        return numTargets;
+    }
+
+    // the whole table, row by row (one row of getNumTargets() distances per source)
+    public int[] getDistances() {
+        return distances;
+    }
+
+    public void print() {
+        for (int i = 0; i < numSources; i++) {
+            StringBuilder row = new StringBuilder();
+            for (int j = 0; j < numTargets; j++) {
+                int d = get(i, j);
+                row.append(d == Integer.MAX_VALUE ? "INF" : String.valueOf(d)).append("\t");
+            }
+            Pr.x(row.toString());
+        }
+    }
+
+    // the arrays one thread needs for its searches. Kept between searches and never reset: stamp tells which entries are current
+    private static class Scratch {
+        int[] dist;
+        int[] visited; // search number in which each vertex was last reached
+        int[] reached;
+        int stamp;
+        IndexedBinaryHeap heap;
+
+        Scratch(int n) {
+            dist = new int[n];
+            visited = new int[n];
+            reached = new int[n];
+            heap = new IndexedBinaryHeap(n);
+        }
+    }
+}
@@ -0,0 +1,491 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * A mutable graph for when edges are added and removed all the time. Graph keeps its edges in edgeList and every change
+ * has to go through updateAdjList(), which throws away the adjacency list (and CSR arrays) and builds them again from
+ * scratch. Doing that for every edge update is O(V + E) per update.
+ *
+ * Here each vertex has its own growable int arrays holding its neighbours and the weights of the edges to them:
+ *
+ * - targets[v][0 .. degree[v] - 1] which are the vertices v has an edge to
+ * - weights[v][0 .. degree[v] - 1] which are the weights of those edges
+ *
+ * Adding an edge just appends to the arrays of the source vertex (doubling the arrays when they are full, so it is
+ * amortised O(1)). Removing an edge moves the last arc of the row into its place, so nothing gets shifted or rebuilt.
+ * The order of the neighbours in a row is therefore not kept.
+ *
+ * To find the arc to remove without scanning the row, every arc is also in an ArcIndex: a hash table from
+ * (vertex, neighbour) to the slot of the arc in the row of vertex. When the last arc of a row is moved into a hole its
+ * entry is pointed at the new slot. So adding and removing an edge are both O(1) (expected), even for vertices with
+ * millions of neighbours. The price is memory: the table size is a power of 2 kept at most half full, so it has 2 to 4
+ * slots per arc at 12 bytes a slot (a long and an int). That is 24 to 48 bytes per arc on top of the 8 bytes per arc of the
+ * rows, twice that with the reverse index (which has its own table). A table can have at most 2^30 slots (the largest
+ * power of 2 an array can be), so at most 2^29 arcs, and going past that throws IllegalStateException.
+ *
+ * Optionally we also keep a reverse index (the in-edges of every vertex) in the same way. This makes it possible to
+ * get the in-degree of a vertex and to remove a vertex without scanning every row in the graph. For undirected graphs
+ * every edge is stored in both directions anyway, so the reverse index is never needed.
+ *
+ * Once a batch of updates is done, toCSR() / toGraph() freeze the current state into CSR arrays so that the algorithms
+ * that work with Graph can be run on it.
+ */
+
+public class DynamicGraph {
+    private static final int INITIAL_CAPACITY = 4; // rows start at this size the first time an edge is added to them
+
+    private int numNodes; // number of nodes in the graph
+    private int numEdges; // number of edges (undirected edges are only counted once)
+    private boolean isDirected;
+    private boolean isWeighted;
+
+    private int[][] targets; // targets[v] holds the neighbours of v
+    private int[][] weights; // weights[v][i] is the weight of the edge from v to targets[v][i]
+    private int[] degree; // number of used slots in targets[v] / weights[v]
+    private ArcIndex targetIndex; // (v, target) -> a slot i with targets[v][i] == target
+
+    private boolean keepReverse; // whether we keep the reverse (in-edge) index below. Only used for directed graphs
+    private int[][] sources; // sources[v] holds the vertices that have an edge to v
+    private int[] inDegree; // number of used slots in sources[v]
+    private ArcIndex sourceIndex; // (v, source) -> a slot i with sources[v][i] == source
+
+    public static void main(String args[]) {
+        int[][] edges = {{0, 6}, {1, 2}, {1, 4}, {1, 6}, {3, 0}, {3, 4}, {5, 1}, {7, 0}, {7, 1}};
+        Graph g = new Graph(edges, 8, true, false); // create new directed, unweighted graph (true, false)
+        DynamicGraph dg = new DynamicGraph(g, true);
+
+        dg.addEdge(6, 2, -1);
+        dg.removeEdge(1, 6);
+        Pr.x("In-degree of 0: " + dg.getInDegree(0));
+        dg.removeVertex(1);
+        Pr.x("Number of edges after removing vertex 1: " + dg.getNumEdges());
+        dg.toCSR().print();
+    }
+
+    /**
+     * DynamicGraph - class constructor for an empty graph
+     *
+     * @param numNodes number of nodes in the graph (more can be added with addVertex())
+     * @param isDirected whether the graph is directed
+     * @param isWeighted whether the graph is weighted
+     * @param keepReverse whether to keep an index of in-edges for each vertex (directed graphs only)
+     */
+    public DynamicGraph(int numNodes, boolean isDirected, boolean isWeighted, boolean keepReverse) {
+        this(numNodes, isDirected, isWeighted, keepReverse, 0);
+    }
+
+    // expectedArcs is only used to size the arc indexes up front
+    private DynamicGraph(int numNodes, boolean isDirected, boolean isWeighted, boolean keepReverse, int expectedArcs) {
+        this.numNodes = numNodes;
+        this.isDirected = isDirected;
+        this.isWeighted = isWeighted;
+        this.keepReverse = keepReverse && isDirected;
+        targets = new int[numNodes][];
+        weights = new int[numNodes][];
+        degree = new int[numNodes];
+        targetIndex = new ArcIndex(expectedArcs);
+        if (this.keepReverse) {
+            sources = new int[numNodes][];
+            inDegree = new int[numNodes];
+            sourceIndex = new ArcIndex(expectedArcs);
+        }
+    }
+
+    /**
+     * DynamicGraph - class constructor that copies the edges of an existing graph. The rows are sized exactly from the
+     * CSR arrays of the graph so nothing needs to grow until new edges are added.
+     *
+     * @param g the graph to copy
+     * @param keepReverse whether to keep an index of in-edges for each vertex (directed graphs only)
+     * @throws IllegalStateException if g has more than 2^29 arcs, which is more than an arc index can hold
+     */
+    public DynamicGraph(Graph g, boolean keepReverse) {
+        this(g.getNumNodes(), g.isDirected(), g.isWeighted(), keepReverse, g.getCSR().getNumArcs());
+        CSRGraph csr = g.getCSR();
+
+        for (int v = 0; v < numNodes; v++) {
+            int start = csr.getOffset(v);
+            degree[v] = csr.getDegree(v);
+            targets[v] = new int[degree[v]];
+            weights[v] = new int[degree[v]];
+            for (int i = 0; i < degree[v]; i++) {
+                targets[v][i] = csr.getTarget(start + i);
+                weights[v][i] = csr.getWeight(start + i);
+                targetIndex.add(v, targets[v][i], i);
+            }
+            numEdges += degree[v];
+        }
+
+        if (!isDirected) {
+            // each edge is stored twice, except self loops which are stored once
+            int selfLoops = 0;
+            for (int v = 0; v < numNodes; v++) {
+                for (int i = 0; i < degree[v]; i++) {
+                    if (targets[v][i] == v) selfLoops++;
+                }
+            }
+            numEdges = (numEdges + selfLoops) / 2;
+        }
+
+        if (this.keepReverse) {
+            for (int v = 0; v < numNodes; v++) {
+                for (int i = 0; i < degree[v]; i++) {
+                    appendSource(targets[v][i], v);
+                }
+            }
+        }
+    }
+
+    /**
+     * addVertex - add a new vertex with no edges
+     *
+     * @return the number of the new vertex
+     */
+    public int addVertex() {
+        if (numNodes == degree.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, numNodes * 2);
+            targets = Arrays.copyOf(targets, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            degree = Arrays.copyOf(degree, capacity);
+            if (keepReverse) {
+                sources = Arrays.copyOf(sources, capacity);
+                inDegree = Arrays.copyOf(inDegree, capacity);
+            }
+        }
+        return numNodes++;
+    }
+
+    /**
+     * addEdge - add an edge from source to dest. Amortised O(1) (expected, because of the arc indexes).
+     *
+     * @param source the source vertex
+     * @param dest the destination vertex
+     * @param weight the weight of the edge (-1 if unweighted)
+     */
+    public void addEdge(int source, int dest, int weight) {
+        if (!isWeighted) weight = -1;
+        appendTarget(source, dest, weight);
+        if (!isDirected && source != dest) {
+            appendTarget(dest, source, weight);
+        }
+        if (keepReverse) {
+            appendSource(dest, source);
+        }
+        numEdges++;
+    }
+
+    /**
+     * removeEdge - remove one edge from source to dest (if there are parallel edges only one of them is removed). O(1)
+     * (expected): the arc indexes give the slots to swap-remove, so no row is scanned.
+     *
+     * @param source the source vertex
+     * @param dest the destination vertex
+     * @return true if an edge was removed, false if there was no such edge
+     */
+    public boolean removeEdge(int source, int dest) {
+        if (!removeTarget(source, dest)) {
+            return false;
+        }
+        if (!isDirected && source != dest) {
+            removeTarget(dest, source);
+        }
+        if (keepReverse) {
+            removeSource(dest, source);
+        }
+        numEdges--;
+        return true;
+    }
+
+    /**
+     * removeOutEdges - remove all the edges going out of vertex
+     *
+     * @param vertex the vertex for which we want to remove all outgoing edges
+     */
+    public void removeOutEdges(int vertex) {
+        // the whole row goes, so we only have to fix up the other side of each edge
+        for (int i = degree[vertex] - 1; i >= 0; i--) {
+            int target = targets[vertex][i];
+            targetIndex.remove(vertex, target, i);
+            if (!isDirected && target != vertex) {
+                removeTarget(target, vertex);
+            }
+            if (keepReverse) {
+                removeSource(target, vertex);
+            }
+            numEdges--;
+        }
+        degree[vertex] = 0;
+    }
+
+    /**
+     * removeVertex - remove all the edges into and out of vertex. The vertex itself stays (with no edges) so that the
+     * numbering of the other vertices doesn't change. With the reverse index (or for undirected graphs) this is
+     * O(degree of the vertex). For directed graphs without the reverse index we don't know which vertices have an edge
+     * into vertex, so every vertex gets asked (one index lookup each), which is O(V).
+     *
+     * @param vertex the vertex to remove
+     */
+    public void removeVertex(int vertex) {
+        removeOutEdges(vertex);
+
+        if (!isDirected) {
+            return; // the out-edges were the in-edges as well
+        }
+
+        if (keepReverse) {
+            while (inDegree[vertex] > 0) {
+                removeEdge(sources[vertex][inDegree[vertex] - 1], vertex);
+            }
+        } else {
+            for (int v = 0; v < numNodes; v++) {
+                boolean removed = true;
+                while (removed) { // there could be parallel edges
+                    removed = removeEdge(v, vertex);
+                }
+            }
+        }
+    }
+
+    public boolean hasEdge(int source, int dest) {
+        return targetIndex.find(source, dest) >= 0;
+    }
+
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    public boolean isDirected() {
+        return isDirected;
+    }
+
+    public boolean isWeighted() {
+        return isWeighted;
+    }
+
+    public int getDegree(int v) {
+        return degree[v];
+    }
+
+    // i-th neighbour of v, for 0 <= i < getDegree(v)
+    public int getTarget(int v, int i) {
+        return targets[v][i];
+    }
+
+    // weight of the edge to the i-th neighbour of v
+    public int getWeight(int v, int i) {
+        return weights[v][i];
+    }
+
+    // number of edges coming into v. Needs the reverse index for directed graphs
+    public int getInDegree(int v) {
+        if (!isDirected) {
+            return degree[v];
+        }
+        if (!keepReverse) {
+            throw new IllegalStateException("In-degree needs the reverse index. Create the DynamicGraph with keepReverse = true");
+        }
+        return inDegree[v];
+    }
+
+    // i-th vertex with an edge into v, for 0 <= i < getInDegree(v)
+    public int getSource(int v, int i) {
+        if (!isDirected) {
+            return targets[v][i];
+        }
+        if (!keepReverse) {
+            throw new IllegalStateException("In-edges need the reverse index. Create the DynamicGraph with keepReverse = true");
+        }
+        return sources[v][i];
+    }
+
+    /**
+     * toCSR - freeze the current state of the graph into CSR arrays. O(V + E).
+     *
+     * @return CSRGraph holding a copy of the current edges
+     */
+    public CSRGraph toCSR() {
+        int[] offsets = new int[numNodes + 1];
+        for (int v = 0; v < numNodes; v++) {
+            offsets[v + 1] = offsets[v] + degree[v];
+        }
+        int[] csrTargets = new int[offsets[numNodes]];
+        int[] csrWeights = new int[offsets[numNodes]];
+        for (int v = 0; v < numNodes; v++) {
+            if (degree[v] == 0) continue;
+            System.arraycopy(targets[v], 0, csrTargets, offsets[v], degree[v]);
+            System.arraycopy(weights[v], 0, csrWeights, offsets[v], degree[v]);
+        }
+        return new CSRGraph(numNodes, offsets, csrTargets, csrWeights, isDirected, isWeighted); // this sorts the rows
+    }
+
+    // same as toCSR(), but wrapped in a Graph so that the algorithms that take a Graph can be run on it
+    public Graph toGraph() {
+        return new Graph(toCSR());
+    }
+
+    // add an arc to the row of v, growing the row if it is full
+    private void appendTarget(int v, int target, int weight) {
+        if (targets[v] == null || degree[v] == targets[v].length) {
+            int capacity = targets[v] == null ? INITIAL_CAPACITY : Math.max(INITIAL_CAPACITY, targets[v].length * 2);
+            targets[v] = targets[v] == null ? new int[capacity] : Arrays.copyOf(targets[v], capacity);
+            weights[v] = weights[v] == null ? new int[capacity] : Arrays.copyOf(weights[v], capacity);
+        }
+        targets[v][degree[v]] = target;
+        weights[v][degree[v]] = weight;
+        targetIndex.add(v, target, degree[v]);
+        degree[v]++;
+    }
+
+    // add source to the in-edges of v, growing the row if it is full
+    private void appendSource(int v, int source) {
+        if (sources[v] == null || inDegree[v] == sources[v].length) {
+            int capacity = sources[v] == null ? INITIAL_CAPACITY : Math.max(INITIAL_CAPACITY, sources[v].length * 2);
+            sources[v] = sources[v] == null ? new int[capacity] : Arrays.copyOf(sources[v], capacity);
+        }
+        sources[v][inDegree[v]] = source;
+        sourceIndex.add(v, source, inDegree[v]);
+        inDegree[v]++;
+    }
+
+    // remove one arc v -> target by moving the last arc of the row into its slot
+    private boolean removeTarget(int v, int target) {
+        int i = targetIndex.find(v, target);
+        if (i < 0) {
+            return false;
+        }
+        targetIndex.remove(v, target, i);
+        int last = --degree[v];
+        if (i != last) {
+            targets[v][i] = targets[v][last];
+            weights[v][i] = weights[v][last];
+            targetIndex.move(v, targets[v][i], last, i);
+        }
+        return true;
+    }
+
+    // remove source from the in-edges of v in the same way
+    private void removeSource(int v, int source) {
+        int i = sourceIndex.find(v, source);
+        sourceIndex.remove(v, source, i);
+        int last = --inDegree[v];
+        if (i != last) {
+            sources[v][i] = sources[v][last];
+            sourceIndex.move(v, sources[v][i], last, i);
+        }
+    }
+
+    /*
+     * A hash table from (vertex, neighbour) to slots in the row of vertex, with linear probing in two primitive arrays.
+     * Parallel edges give several entries with the same key (one per slot), which is why remove() and move() are told the
+     * slot as well. Removing an entry shifts the entries after it back into the hole instead of leaving a tombstone, so
+     * the table never fills up with dead entries however many edges come and go.
+     */
+    private static class ArcIndex {
+        private static final long EMPTY = -1; // real keys are two non-negative ints, so never negative
+        private static final int MAX_CAPACITY = 1 << 30; // the largest power of 2 that an array length can be
+
+        private long[] keys; // vertex << 32 | neighbour
+        private int[] slots;
+        private int size;
+        private int shift; // 64 - log2(capacity), for the multiplicative hash
+
+        ArcIndex(long expected) {
+            int capacity = capacityFor(expected);
+            keys = new long[capacity];
+            slots = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        }
+
+        // a slot of some entry for (v, neighbour), or -1 if there is none
+        int find(int v, int neighbour) {
+            long key = key(v, neighbour);
+            for (int i = home(key); keys[i] != EMPTY; i = (i + 1) & (keys.length - 1)) {
+                if (keys[i] == key) return slots[i];
+            }
+            return -1;
+        }
+
+        void add(int v, int neighbour, int slot) {
+            if (2L * (size + 1) > keys.length) {
+                grow();
+            }
+            put(key(v, neighbour), slot);
+            size++;
+        }
+
+        // the entry for (v, neighbour) at slot from is now at slot to
+        void move(int v, int neighbour, int from, int to) {
+            slots[entry(key(v, neighbour), from)] = to;
+        }
+
+        void remove(int v, int neighbour, int slot) {
+            int mask = keys.length - 1;
+            int hole = entry(key(v, neighbour), slot);
+            for (int i = (hole + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+                // the entry at i can fill the hole if the hole is no further from i than its home is
+                if (((i - home(keys[i])) & mask) >= ((i - hole) & mask)) {
+                    keys[hole] = keys[i];
+                    slots[hole] = slots[i];
+                    hole = i;
+                }
+            }
+            keys[hole] = EMPTY;
+            size--;
+        }
+
+        // the table position of the entry for key at slot (which has to be there)
+        private int entry(long key, int slot) {
+            int i = home(key);
+            while (keys[i] != key || slots[i] != slot) {
+                i = (i + 1) & (keys.length - 1);
+            }
+            return i;
+        }
+
+        private void put(long key, int slot) {
+            int i = home(key);
+            while (keys[i] != EMPTY) {
+                i = (i + 1) & (keys.length - 1);
+            }
+            keys[i] = key;
+            slots[i] = slot;
+        }
+
+        private void grow() {
+            int capacity = capacityFor(size + 1L); // twice the old capacity
+            long[] oldKeys = keys;
+            int[] oldSlots = slots;
+            keys = new long[capacity];
+            slots = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            shift = 64 - Integer.numberOfTrailingZeros(capacity);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) put(oldKeys[i], oldSlots[i]);
+            }
+        }
+
+        // the smallest power of 2 that holds this many entries at most half full. Worked out in longs, so it can't overflow
+        private static int capacityFor(long entries) {
+            long capacity = Long.highestOneBit(Math.max(8, entries) * 2 - 1) << 1;
+            if (capacity > MAX_CAPACITY) {
+                throw new IllegalStateException("An arc index can hold at most " + MAX_CAPACITY / 2 + " arcs, not " + entries);
+            }
+            return (int) capacity;
+        }
+
+        private int home(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        }
+
+        private static long key(int v, int neighbour) {
+            return ((long) v << 32) | neighbour;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * Keeps all-pairs shortest paths up to date while edge weights change, without running Floyd-Warshall (O(V^3)) again after
+ * every change. It works on the distanceMatrix / vertexConnections matrices from FloydWarshall.java (or JohnsonsAlgorithm.java)
+ * and changes them in place, so FloydWarshall.reconstructPath() keeps working on them.
+ *
+ * Changing the weight of the edge u -> v to w:
+ *
+ * - Decrease: the only new shortest paths are ones through u -> v. For every i that can reach u and every j that v can
+ *   reach, the path i ~> u -> v ~> j has length dist[i][u] + w + dist[v][j]. Where that is shorter than dist[i][j] it
+ *   replaces it, and the next hop from i becomes the next hop from i towards u. That is O(V^2), and usually a lot less as
+ *   only the i's whose distance to v goes down and the j's whose distance from u goes down need looking at. If
+ *   w + dist[v][u] < 0 the change would make a negative cycle, so it is refused.
+ *
+ * - Increase (or removal): only the pairs whose current path goes over u -> v can get longer, every other distance stays
+ *   the same. For each destination j, the next hops towards j form a tree, and the pairs that go over u -> v are the
+ *   vertices in the subtree under u (if u's next hop towards j is v). For each j, those "affected" vertices are worked out
+ *   again with a Dijkstra that only runs over them: each starts off with its best edge to an unaffected vertex (whose
+ *   distance is still right) and the Dijkstra spreads the improvements between affected vertices. The edges can be
+ *   negative, so the Dijkstra uses the old distances to j as potentials: w(i, x) + oldDist[x][j] - oldDist[i][j] was >= 0
+ *   before the change (the old distances were shortest) and edges only got heavier, so it still is. The cost is at most
+ *   O(V^2) to find the affected pairs, plus a small Dijkstra for each column that has any.
+ *
+ * Paths of the same length: the next hops are only ever changed to strictly shorter paths (decrease) or to vertices whose
+ * final distance is already known (increase), so each column of vertexConnections stays a tree and reconstructPath never
+ * goes round in a circle, even with 0 weight cycles.
+ */
+
+public class DynamicShortestPaths {
+    private int n;
+    private int[][] distanceMatrix; // the caller's matrices, kept up to date
+    private int[][] vertexConnections;
+    private int[][] weights; // weights[u][v] is the weight of the edge u -> v (Integer.MAX_VALUE if there is none)
+    private int[][] outNeighbours, inNeighbours; // rebuilt only when an edge is added or removed
+
+    // scratch for increases
+    private byte[] state; // per column: 0 = not worked out yet, AFFECTED or UNAFFECTED
+    private int[] stateStamp; // which column state[x] was set for
+    private int stamp;
+    private int[] rows, columns, tight, affected, walk, hop;
+    private long[] newDist;
+    private IndexedBinaryHeap heap;
+    private static final byte AFFECTED = 1, UNAFFECTED = 2;
+
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 2, -2}, {2, 3, 2}, {3, 1, -1}, {1, 2, 3}, {1, 0, 4}}; // same graph as FloydWarshall.java
+        int n = 4;
+        int[][] distanceMatrix = new int[n][n];
+        int[][] vertexConnections = new int[n][n];
+        JohnsonsAlgorithm.calculateShortestPaths(distanceMatrix, vertexConnections, new Graph(weightedEdges, n, true, true), ForkJoinPool.commonPool());
+        DynamicShortestPaths paths = new DynamicShortestPaths(distanceMatrix, vertexConnections, weightedEdges);
+
+        paths.updateEdge(3, 1, 5); // increase
+        Pr.x("After 3 -> 1 goes up to 5:");
+        for (int i = 0; i < n; i++) {
+            Pr.x(Arrays.toString(distanceMatrix[i]));
+        }
+        FloydWarshall.reconstructPath(0, 1, vertexConnections);
+
+        paths.updateEdge(0, 3, 1); // new edge
+        Pr.x("After adding 0 -> 3 with weight 1:");
+        for (int i = 0; i < n; i++) {
+            Pr.x(Arrays.toString(distanceMatrix[i]));
+        }
+        FloydWarshall.reconstructPath(0, 1, vertexConnections);
+        Pr.x("Adding 1 -> 3 with weight -6 accepted: " + paths.updateEdge(1, 3, -6)); // 1 -> 3 -> 1 would be a negative cycle
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java DynamicShortestPaths benchmark
+        }
+    }
+
+    // updates against recomputing with Johnson's algorithm on 1000 vertices, takes seconds
+    private static void benchmark() {
+        // Timing: 1000 random weight changes on a sparse graph vs computing everything again (once) with Johnson's algorithm
+        int n = 1000;
+        Random random = new Random(1);
+        Set<Long> seen = new HashSet<Long>(); // no parallel edges, so an edge's weight in the list is its weight in the graph
+        int[][] randomEdges = new int[n * 5][];
+        for (int e = 0; e < randomEdges.length; e++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            if (!seen.add((long) u * n + v)) {
+                e--;
+                continue;
+            }
+            randomEdges[e] = new int[] {u, v, random.nextInt(1000)};
+        }
+        int[][] distanceMatrix = new int[n][n];
+        int[][] vertexConnections = new int[n][n];
+        JohnsonsAlgorithm.calculateShortestPaths(distanceMatrix, vertexConnections, new Graph(randomEdges, n, true, true), ForkJoinPool.commonPool());
+        DynamicShortestPaths paths = new DynamicShortestPaths(distanceMatrix, vertexConnections, randomEdges);
+
+        long start = System.nanoTime();
+        for (int update = 0; update < 1000; update++) {
+            int[] edge = randomEdges[random.nextInt(randomEdges.length)];
+            edge[2] = random.nextInt(1000);
+            paths.updateEdge(edge[0], edge[1], edge[2]);
+        }
+        Pr.x("1000 updates: " + (System.nanoTime() - start) / 1000000 + "ms");
+
+        int[][] check = new int[n][n];
+        start = System.nanoTime();
+        JohnsonsAlgorithm.calculateShortestPaths(check, new int[n][n], new Graph(randomEdges, n, true, true), ForkJoinPool.commonPool());
+        Pr.x("Johnson's algorithm from scratch: " + (System.nanoTime() - start) / 1000000 + "ms, same distances: " + Arrays.deepEquals(check, distanceMatrix));
+    }
+
+    /**
+     * DynamicShortestPaths - start keeping the shortest paths of a graph up to date
+     *
+     * @param distanceMatrix n x n shortest distances of the graph (Integer.MAX_VALUE where there is no path), changed in place from now on
+     * @param vertexConnections n x n next hops that go with distanceMatrix, changed in place from now on
+     * @param weightedEdges the edges of the graph ({source, dest, weight}). Of parallel edges, the lightest is used
+     */
+    public DynamicShortestPaths(int[][] distanceMatrix, int[][] vertexConnections, int[][] weightedEdges) {
+        n = distanceMatrix.length;
+        this.distanceMatrix = distanceMatrix;
+        this.vertexConnections = vertexConnections;
+        weights = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(weights[i], Integer.MAX_VALUE);
+        }
+        for (int[] edge: weightedEdges) {
+            weights[edge[0]][edge[1]] = Math.min(weights[edge[0]][edge[1]], edge[2]);
+        }
+        buildNeighbours();
+
+        state = new byte[n];
+        stateStamp = new int[n];
+        rows = new int[n];
+        columns = new int[n];
+        tight = new int[n];
+        affected = new int[n];
+        walk = new int[n];
+        hop = new int[n];
+        newDist = new long[n];
+        heap = new IndexedBinaryHeap(n);
+    }
+
+    /**
+     * updateEdge - change the weight of the edge u -> v and bring the shortest paths up to date
+     *
+     * @param u source vertex of the edge
+     * @param v destination vertex of the edge
+     * @param weight the new weight. Integer.MAX_VALUE removes the edge, and an edge that isn't there yet is added
+     * @return boolean = false if the change would make a negative cycle (nothing is changed then), true otherwise
+     */
+    public boolean updateEdge(int u, int v, int weight) {
+        int oldWeight = weights[u][v];
+        if (weight == oldWeight) {
+            return true;
+        }
+        if (u == v) { // a self loop is never on a shortest path, unless it is a negative cycle itself
+            if (weight < 0) return false;
+            weights[u][v] = weight;
+            return true;
+        }
+        if (weight < oldWeight && distanceMatrix[v][u] != Integer.MAX_VALUE && (long) weight + distanceMatrix[v][u] < 0) {
+            return false;
+        }
+
+        weights[u][v] = weight;
+        if (oldWeight == Integer.MAX_VALUE || weight == Integer.MAX_VALUE) {
+            buildNeighbours();
+        }
+        if (weight < oldWeight) {
+            decrease(u, v, weight);
+        } else {
+            increase(u, v, oldWeight);
+        }
+        return true;
+    }
+
+    // the edge u -> v got lighter: try every path i ~> u -> v ~> j
+    private void decrease(int u, int v, int weight) {
+        if (weight >= distanceMatrix[u][v]) {
+            return; // not even shorter than the path u ~> v we already have, so no path through it is either
+        }
+        // only the j's that u gets closer to (over the edge) and the i's that get closer to v can gain anything
+        int[] fromU = distanceMatrix[u], fromV = distanceMatrix[v];
+        int numColumns = 0;
+        for (int j = 0; j < n; j++) {
+            if (fromV[j] != Integer.MAX_VALUE && (long) weight + fromV[j] < fromU[j]) columns[numColumns++] = j;
+        }
+        for (int i = 0; i < n; i++) {
+            int[] fromI = distanceMatrix[i];
+            int iu = fromI[u];
+            if (iu == Integer.MAX_VALUE || (long) iu + weight >= fromI[v]) continue;
+            int hopI = i == u ? v : vertexConnections[i][u];
+            long iv = (long) iu + weight;
+            for (int c = 0; c < numColumns; c++) {
+                int j = columns[c];
+                long viaEdge = iv + fromV[j];
+                if (viaEdge < fromI[j]) {
+                    fromI[j] = (int) viaEdge;
+                    vertexConnections[i][j] = hopI;
+                }
+            }
+        }
+    }
+
+    // the edge u -> v got heavier (or went away): work out again every pair whose path went over it, one column at a time
+    private void increase(int u, int v, int oldWeight) {
+        // columns where u's path goes over the edge (otherwise nobody's does), and rows that can reach u at all
+        int numColumns = 0, numRows = 0;
+        for (int j = 0; j < n; j++) {
+            if (j != u && vertexConnections[u][j] == v) columns[numColumns++] = j;
+        }
+        if (numColumns == 0) {
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            if (distanceMatrix[i][u] != Integer.MAX_VALUE) rows[numRows++] = i;
+        }
+
+        // a pair can only go over the edge if its distance is exactly dist[i][u] + oldWeight + dist[v][j] ("tight"). Checking that
+        // row by row is cheap on the cache, and leaves only a few pairs per column for the walks along next hops below. The
+        // tight pairs are collected into per column lists (CSR style) before any distance changes
+        int[] tightOffsets = new int[numColumns + 1];
+        for (int pass = 0; pass < 2; pass++) {
+            int[] next = pass == 0 ? tightOffsets : Arrays.copyOf(tightOffsets, numColumns);
+            for (int r = 0; r < numRows; r++) {
+                int i = rows[r];
+                int[] fromI = distanceMatrix[i];
+                long iv = (long) fromI[u] + oldWeight;
+                for (int c = 0; c < numColumns; c++) {
+                    int j = columns[c];
+                    if (iv + distanceMatrix[v][j] == fromI[j]) {
+                        if (pass == 0) {
+                            next[c + 1]++;
+                        } else {
+                            tight[next[c]++] = i;
+                        }
+                    }
+                }
+            }
+            if (pass == 0) {
+                for (int c = 0; c < numColumns; c++) {
+                    tightOffsets[c + 1] += tightOffsets[c];
+                }
+                if (tight.length < tightOffsets[numColumns]) {
+                    tight = new int[tightOffsets[numColumns]];
+                }
+            }
+        }
+
+        for (int c = 0; c < numColumns; c++) {
+            int j = columns[c];
+            // tight vertices go over the edge if following next hops gets to u (rather than off the tight ones, or to j)
+            stamp++;
+            for (int t = tightOffsets[c]; t < tightOffsets[c + 1]; t++) {
+                setState(tight[t], (byte) 0);
+            }
+            setState(u, AFFECTED);
+            setState(j, UNAFFECTED);
+            int numAffected = 0;
+            for (int t = tightOffsets[c]; t < tightOffsets[c + 1]; t++) {
+                int i = tight[t];
+                int size = 0;
+                int x = i;
+                while (stateOf(x) == 0) {
+                    walk[size++] = x;
+                    x = vertexConnections[x][j];
+                }
+                byte found = stateOf(x);
+                while (size > 0) {
+                    setState(walk[--size], found);
+                }
+                if (stateOf(i) == AFFECTED) {
+                    affected[numAffected++] = i;
+                }
+            }
+            recomputeColumn(j, numAffected);
+        }
+    }
+
+    // per vertex state for the column being worked on. Vertices not set in this column (stamp) are unaffected
+    private byte stateOf(int x) {
+        return stateStamp[x] == stamp ? state[x] : UNAFFECTED;
+    }
+
+    private void setState(int x, byte value) {
+        stateStamp[x] = stamp;
+        state[x] = value;
+    }
+
+    /**
+     * recomputeColumn - new distances and next hops to j for the affected vertices, with a Dijkstra over just those. Keys are
+     * newDist - oldDist (see the top of the file for why that is never negative). The old distance of an affected vertex stays
+     * in distanceMatrix until its new one is known.
+     */
+    private void recomputeColumn(int j, int numAffected) {
+        heap.clear();
+        for (int a = 0; a < numAffected; a++) {
+            int i = affected[a];
+            newDist[i] = Long.MAX_VALUE;
+            for (int x: outNeighbours[i]) {
+                if (stateOf(x) == AFFECTED || distanceMatrix[x][j] == Integer.MAX_VALUE) continue;
+                long viaX = (long) weights[i][x] + distanceMatrix[x][j];
+                if (viaX < newDist[i]) {
+                    newDist[i] = viaX;
+                    hop[i] = x;
+                }
+            }
+            if (newDist[i] != Long.MAX_VALUE) {
+                heap.insertOrDecrease(i, (int) (newDist[i] - distanceMatrix[i][j]));
+            }
+        }
+
+        while (!heap.isEmpty()) {
+            int x = heap.extractMin();
+            setState(x, UNAFFECTED); // its distance is final now
+            distanceMatrix[x][j] = (int) newDist[x];
+            vertexConnections[x][j] = hop[x];
+            for (int i: inNeighbours[x]) {
+                if (stateOf(i) != AFFECTED) continue;
+                long viaX = (long) weights[i][x] + newDist[x];
+                if (viaX < newDist[i]) {
+                    newDist[i] = viaX;
+                    hop[i] = x;
+                    heap.insertOrDecrease(i, (int) (viaX - distanceMatrix[i][j]));
+                }
+            }
+        }
+
+        // whatever is still affected can't reach j any more
+        for (int a = 0; a < numAffected; a++) {
+            int i = affected[a];
+            if (stateOf(i) == AFFECTED) {
+                distanceMatrix[i][j] = Integer.MAX_VALUE;
+                vertexConnections[i][j] = Integer.MAX_VALUE;
+            }
+        }
+    }
+
+    // adjacency lists from the weight matrix (self loops left out, they are never on a shortest path)
+    private void buildNeighbours() {
+        int[] outCount = new int[n], inCount = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v++) {
+                if (u != v && weights[u][v] != Integer.MAX_VALUE) {
+                    outCount[u]++;
+                    inCount[v]++;
+                }
+            }
+        }
+        outNeighbours = new int[n][];
+        inNeighbours = new int[n][];
+        for (int v = 0; v < n; v++) {
+            outNeighbours[v] = new int[outCount[v]];
+            inNeighbours[v] = new int[inCount[v]];
+            outCount[v] = inCount[v] = 0;
+        }
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v++) {
+                if (u != v && weights[u][v] != Integer.MAX_VALUE) {
+                    outNeighbours[u][outCount[u]++] = v;
+                    inNeighbours[v][inCount[v]++] = u;
+                }
+            }
+        }
+    }
+
+    /**
+     * getEdgeWeight - the current weight of the edge u -> v
+     *
+     * @param u source vertex
+     * @param v destination vertex
+     * @return the weight, or Integer.MAX_VALUE if there is no such edge
+     */
+    public int getEdgeWeight(int u, int v) {
+        return weights[u][v];
+    }
+
+    public int getDistance(int i, int j) {
+        return distanceMatrix[i][j];
+    }
+}
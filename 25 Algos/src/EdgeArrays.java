@@ -0,0 +1,84 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * The edges of a graph stored as 3 parallel int arrays (a "struct of arrays") instead of one Edge object per edge:
+ *
+ * - sources[i] which is the source vertex of edge i
+ * - dests[i] which is the destination vertex of edge i
+ * - weights[i] which is the weight of edge i (-1 if unweighted, same as Edge)
+ *
+ * An Edge object costs a 12-16 byte object header plus its 3 ints plus a reference in the List holding it. Here each edge
+ * is exactly 12 bytes, and looping through all the edges just walks 3 arrays from start to end without touching the
+ * heap in between, which is what loops like Bellman-Ford's relaxation step want.
+ *
+ * The arrays grow by doubling when edges are added, so add() is amortised O(1).
+ */
+
+public class EdgeArrays {
+    private int[] sources;
+    private int[] dests;
+    private int[] weights;
+    private int size; // number of edges actually in the arrays
+
+    public EdgeArrays(int capacity) {
+        sources = new int[Math.max(capacity, 1)];
+        dests = new int[Math.max(capacity, 1)];
+        weights = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * add - add an edge at the end of the arrays
+     *
+     * @param source the source vertex
+     * @param dest the destination vertex
+     * @param weight the weight of the edge (-1 if unweighted)
+     */
+    public void add(int source, int dest, int weight) {
+        if (size == sources.length) {
+            sources = Arrays.copyOf(sources, size * 2);
+            dests = Arrays.copyOf(dests, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        sources[size] = source;
+        dests[size] = dest;
+        weights[size] = weight;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getSource(int i) {
+        return sources[i];
+    }
+
+    public int getDest(int i) {
+        return dests[i];
+    }
+
+    public int getWeight(int i) {
+        return weights[i];
+    }
+
+    // The raw arrays. Only the first size() entries are edges. Handy for handing straight to CSRGraph or for bulk processing.
+    public int[] getSources() {
+        return sources;
+    }
+
+    public int[] getDests() {
+        return dests;
+    }
+
+    public int[] getWeights() {
+        return weights;
+    }
+
+    // create an Edge object for edge i (for code that still works with List<Edge>)
+    public Edge toEdge(int i) {
+        return new Edge(sources[i], dests[i], weights[i]);
+    }
+}
@@ -0,0 +1,316 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Consumer;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * Loads a graph from an edge list file straight into CSR arrays (see CSRGraph.java) without ever holding the edge list
+ * itself in memory. The Graph(int[][] edges, ...) constructor needs the whole edge list as an int[][] plus a List<Edge>,
+ * which is about 3 times the memory of the finished graph. Here we read the file twice instead:
+ *
+ * - pass 1: count the degree of every vertex. A prefix sum over the degrees gives us the offsets array, and the size of
+ *   the targets/weights arrays, so we can allocate them exactly once.
+ * - pass 2: read the file again and drop every arc straight into its slot in targets/weights.
+ *
+ * So the only thing on the heap apart from the final arrays is one extra int per vertex (the next free slot of each row).
+ *
+ * The file is split into chunks (on line boundaries) and the chunks are parsed in parallel by a pool of threads. The degree
+ * counts and next free slots are AtomicIntegerArrays so that the threads can share them. The order that arcs land in a row
+ * depends on which thread gets there first, but the rows get sorted by target at the end so the result is always the same.
+ * The files are memory-mapped and parsed byte by byte, so no Strings get created per line either.
+ *
+ * Supported formats:
+ * - SNAP:   one edge per line, "source dest" or "source dest weight", vertices numbered from 0. Lines starting with # or % are comments.
+ * - DIMACS: "a source dest weight" lines, vertices numbered from 1 (we shift them to start at 0). All other lines (c, p) are skipped.
+ * - BINARY: little-endian ints, 2 per edge (source, dest) or 3 per edge if the graph is weighted.
+ *
+ * If the number of nodes is not known up front (pass numNodes <= 0) we do an extra pass first to find the largest vertex number.
+ * For unweighted graphs weights are set to -1 (same as Edge). For weighted text files a missing weight is taken as 1.
+ */
+
+public class EdgeListLoader {
+    public enum Format { SNAP, DIMACS, BINARY }
+
+    private static final long MAX_CHUNK_BYTES = 1L << 30; // a single mapping can't be more than 2GB, so stay well under that
+
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, 4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+
+        try {
+            File snapFile = File.createTempFile("graph", ".txt");
+            File dimacsFile = File.createTempFile("graph", ".gr");
+            snapFile.deleteOnExit();
+            dimacsFile.deleteOnExit();
+
+            try (PrintWriter snap = new PrintWriter(snapFile); PrintWriter dimacs = new PrintWriter(dimacsFile)) {
+                snap.println("# source dest weight");
+                dimacs.println("c example graph");
+                dimacs.println("p sp 5 " + weightedEdges.length);
+                for (int[] edge: weightedEdges) {
+                    snap.println(edge[0] + "\t" + edge[1] + "\t" + edge[2]);
+                    dimacs.println("a " + (edge[0] + 1) + " " + (edge[1] + 1) + " " + edge[2]);
+                }
+            }
+
+            Pr.x("SNAP:");
+            load(snapFile.getPath(), Format.SNAP, -1, true, true, 2).print(); // -1 = work out the number of nodes from the file
+            Pr.x("DIMACS:");
+            load(dimacsFile.getPath(), Format.DIMACS, 5, true, true, 2).print();
+        } catch (IOException e) {
+            Pr.x("Could not load graph: " + e.getMessage());
+        }
+    }
+
+    /**
+     * loadGraph - same as load(), but wraps the CSR arrays in a Graph
+     */
+    public static Graph loadGraph(String fileName, Format format, int numNodes, boolean isDirected, boolean isWeighted, int numThreads) throws IOException {
+        return new Graph(load(fileName, format, numNodes, isDirected, isWeighted, numThreads));
+    }
+
+    /**
+     * load - read an edge list file into CSR arrays using the two pass degree count / fill described at the top
+     *
+     * @param fileName the file to read
+     * @param format SNAP, DIMACS or BINARY
+     * @param numNodes number of nodes in the graph, or <= 0 to work it out from the file
+     * @param isDirected if false, each edge is stored in both directions
+     * @param isWeighted whether the file has weights
+     * @param numThreads number of threads to parse the file with
+     * @return CSRGraph containing the edges in the file
+     * @throws IOException if the file can't be read or an edge in it is malformed
+     */
+    public static CSRGraph load(String fileName, Format format, int numNodes, boolean isDirected, boolean isWeighted, int numThreads) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, format, isWeighted, numThreads);
+
+            if (numNodes <= 0) {
+                AtomicInteger maxVertex = new AtomicInteger(-1);
+                forEachChunk(pool, channel, bounds, format, isWeighted, parser -> {
+                    int max = -1; // keep the max per chunk so we only touch the shared value once per chunk
+                    while (parser.next()) {
+                        max = Math.max(max, Math.max(parser.source, parser.dest));
+                    }
+                    maxVertex.accumulateAndGet(max, Math::max);
+                });
+                numNodes = maxVertex.get() + 1;
+            }
+            final int n = numNodes;
+
+            // pass 1: count the degree of each vertex
+            AtomicIntegerArray degrees = new AtomicIntegerArray(n);
+            forEachChunk(pool, channel, bounds, format, isWeighted, parser -> {
+                while (parser.next()) {
+                    if (parser.source < 0 || parser.source >= n || parser.dest < 0 || parser.dest >= n) {
+                        throw new IllegalArgumentException("Edge " + parser.source + " -> " + parser.dest + " is outside the " + n + " nodes of the graph");
+                    }
+                    degrees.incrementAndGet(parser.source);
+                    if (!isDirected && parser.source != parser.dest) {
+                        degrees.incrementAndGet(parser.dest);
+                    }
+                }
+            });
+
+            // prefix sum of the degrees gives the offsets
+            int[] offsets = new int[n + 1];
+            long numArcs = 0;
+            for (int v = 0; v < n; v++) {
+                offsets[v] = (int) numArcs;
+                numArcs += degrees.get(v);
+                if (numArcs > Integer.MAX_VALUE) {
+                    throw new IOException(fileName + " has too many edges to fit in CSR arrays");
+                }
+            }
+            offsets[n] = (int) numArcs;
+
+            // pass 2: drop every arc into the next free slot in its row
+            int[] targets = new int[offsets[n]];
+            int[] weights = new int[offsets[n]];
+            AtomicIntegerArray next = new AtomicIntegerArray(Arrays.copyOf(offsets, n));
+            forEachChunk(pool, channel, bounds, format, isWeighted, parser -> {
+                while (parser.next()) {
+                    int arc = next.getAndIncrement(parser.source);
+                    targets[arc] = parser.dest;
+                    weights[arc] = parser.weight;
+                    if (!isDirected && parser.source != parser.dest) {
+                        arc = next.getAndIncrement(parser.dest);
+                        targets[arc] = parser.source;
+                        weights[arc] = parser.weight;
+                    }
+                }
+            });
+
+            return new CSRGraph(n, offsets, targets, weights, isDirected, isWeighted); // this sorts the rows
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * chunkBounds - split the file into chunks for the threads to parse. For text files each boundary is moved forward to just
+     * after the next newline so that no line is split between two chunks. For binary files the boundaries are moved back to
+     * the start of an edge record.
+     *
+     * @return array of chunk boundaries. Chunk i is bounds[i] .. bounds[i + 1] - 1
+     */
+    private static long[] chunkBounds(FileChannel channel, Format format, boolean isWeighted, int numThreads) throws IOException {
+        long size = channel.size();
+        int numChunks = (int) Math.max(numThreads, (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        long[] bounds = new long[numChunks + 1];
+        int recordBytes = isWeighted ? 12 : 8;
+        ByteBuffer window = ByteBuffer.allocate(4096);
+
+        for (int i = 1; i < numChunks; i++) {
+            long pos = Math.max(bounds[i - 1], size / numChunks * i);
+            if (format == Format.BINARY) {
+                pos = pos / recordBytes * recordBytes;
+            } else {
+                boolean found = false;
+                while (!found && pos < size) { // look for the next newline
+                    window.clear();
+                    int read = channel.read(window, pos);
+                    if (read <= 0) break;
+                    for (int j = 0; j < read; j++) {
+                        if (window.get(j) == '\n') {
+                            pos += j + 1;
+                            found = true;
+                            break;
+                        }
+                    }
+                    if (!found) pos += read;
+                }
+                pos = Math.min(pos, size);
+            }
+            bounds[i] = pos;
+        }
+        bounds[numChunks] = size;
+        return bounds;
+    }
+
+    /**
+     * forEachChunk - map each chunk of the file and run task on a parser for it, one chunk per thread at a time.
+     * Waits for all the chunks to be done.
+     */
+    private static void forEachChunk(ExecutorService pool, FileChannel channel, long[] bounds, Format format, boolean isWeighted, Consumer<ChunkParser> task) throws IOException {
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int i = 0; i < bounds.length - 1; i++) {
+            long start = bounds[i];
+            long length = bounds[i + 1] - bounds[i];
+            if (length == 0) continue;
+            tasks.add(() -> {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                task.accept(new ChunkParser(buffer, format, isWeighted));
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> result: pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Could not load edge list: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading edge list");
+        }
+    }
+
+    /*
+     * Reads edges one at a time out of a mapped chunk of the file. After next() returns true, source, dest and weight
+     * hold the edge that was just read.
+     */
+    private static class ChunkParser {
+        private ByteBuffer buffer;
+        private Format format;
+        private boolean isWeighted;
+        private int pos;
+        int source, dest, weight;
+
+        ChunkParser(ByteBuffer buffer, Format format, boolean isWeighted) {
+            this.buffer = buffer;
+            this.format = format;
+            this.isWeighted = isWeighted;
+        }
+
+        boolean next() {
+            if (format == Format.BINARY) {
+                int recordBytes = isWeighted ? 12 : 8;
+                if (pos + recordBytes > buffer.limit()) return false;
+                source = buffer.getInt(pos);
+                dest = buffer.getInt(pos + 4);
+                weight = isWeighted ? buffer.getInt(pos + 8) : -1;
+                pos += recordBytes;
+                return true;
+            }
+
+            while (pos < buffer.limit()) {
+                byte c = buffer.get(pos);
+                if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                    pos++;
+                } else if (format == Format.DIMACS && c == 'a') {
+                    pos++;
+                    readEdgeLine();
+                    source--; // DIMACS numbers vertices from 1
+                    dest--;
+                    return true;
+                } else if (format == Format.SNAP && (c == '-' || (c >= '0' && c <= '9'))) {
+                    readEdgeLine();
+                    return true;
+                } else {
+                    skipLine(); // comment or header line
+                }
+            }
+            return false;
+        }
+
+        private void readEdgeLine() {
+            source = readInt();
+            dest = readInt();
+            if (isWeighted) {
+                weight = hasNumber() ? readInt() : 1;
+            } else {
+                weight = -1;
+            }
+            skipLine();
+        }
+
+        private boolean hasNumber() {
+            while (pos < buffer.limit() && (buffer.get(pos) == ' ' || buffer.get(pos) == '\t')) {
+                pos++;
+            }
+            if (pos >= buffer.limit()) return false;
+            byte c = buffer.get(pos);
+            return c == '-' || (c >= '0' && c <= '9');
+        }
+
+        private int readInt() {
+            if (!hasNumber()) {
+                throw new IllegalArgumentException("Malformed edge line, expected a number at byte " + pos + " of chunk");
+            }
+            boolean negative = buffer.get(pos) == '-';
+            if (negative) pos++;
+            int value = 0;
+            while (pos < buffer.limit() && buffer.get(pos) >= '0' && buffer.get(pos) <= '9') {
+                value = value * 10 + (buffer.get(pos) - '0');
+                pos++;
+            }
+            return negative ? -value : value;
+        }
+
+        private void skipLine() {
+            while (pos < buffer.limit() && buffer.get(pos) != '\n') {
+                pos++;
+            }
+        }
+    }
+}
@@ -104,7 +104,7 @@ public class FloydWarshall {
      * @param j destination vertex
      * @param vertexConnections path data
      */
-    private static void reconstructPath(int i, int j, int[][] vertexConnections) {
+    public static void reconstructPath(int i, int j, int[][] vertexConnections) {
         if (vertexConnections[i][j] == Integer.MAX_VALUE) {
             Pr.x("NO PATH!");
         } else {
@@ -116,5 +116,100 @@ public class FloydWarshall {
             Pr.x(path.toString());
         }
     }
-    
+
+    /**
+     * initDistanceMatrix - same as above, but for matrices kept in a memory-mapped file (see PathMatrixFile.java). All rows
+     * are set to 'infinity' first, then the edges and the diagonals are filled in. Of parallel edges the lightest is kept.
+     * 
+     * @param matrices the distance and next hop matrices to fill
+     * @param weightedEdges array of weighted edges
+     */
+    public static void initDistanceMatrix(PathMatrixFile matrices, int[][] weightedEdges) {
+        int n = matrices.getNumNodes();
+        int[] noPaths = new int[n];
+        Arrays.fill(noPaths, Integer.MAX_VALUE);
+        for (int i = 0; i < n; i++) {
+            matrices.writeDistanceRow(i, noPaths);
+            matrices.writeNextRow(i, noPaths);
+        }
+
+        for (int[] edge: weightedEdges) {
+            if (edge[2] < matrices.getDistance(edge[0], edge[1])) {
+                matrices.setDistance(edge[0], edge[1], edge[2]);
+                matrices.setNext(edge[0], edge[1], edge[1]);
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (matrices.getDistance(i, i) > 0) { // a negative self loop stays, so it shows up as a negative cycle
+                matrices.setDistance(i, i, 0);
+            }
+            matrices.setNext(i, i, i);
+        }
+    }
+
+    /**
+     * calculateShortestPaths - same as above, but for matrices kept in a memory-mapped file. The matrices are far too big
+     * to copy onto the heap, so only a few rows are: for each k we keep row k, and then for each i we bulk read row i, update
+     * it, and only write it back if something changed. Rows that can't reach k are skipped without being read at all.
+     * 
+     * @param matrices the distance and next hop matrices, set up by initDistanceMatrix
+     * @return boolean = false if a negative cycle was found (the matrices are then not meaningful), true otherwise
+     */
+    public static boolean calculateShortestPaths(PathMatrixFile matrices) {
+        int n = matrices.getNumNodes();
+        int[] rowK = new int[n];
+        int[] rowI = new int[n];
+        int[] nextI = new int[n];
+
+        for (int k = 0; k < n; k++) {
+            matrices.readDistanceRow(k, rowK);
+            for (int i = 0; i < n; i++) {
+                int ik = matrices.getDistance(i, k);
+                if (ik == Integer.MAX_VALUE) continue;
+
+                matrices.readDistanceRow(i, rowI);
+                boolean changed = false;
+                for (int j = 0; j < n; j++) {
+                    if (rowK[j] != Integer.MAX_VALUE && rowI[j] > ik + rowK[j]) {
+                        if (!changed) {
+                            matrices.readNextRow(i, nextI); // only needed once the row actually changes
+                            changed = true;
+                        }
+                        rowI[j] = ik + rowK[j];
+                        nextI[j] = nextI[k];
+                    }
+                }
+
+                if (changed) {
+                    matrices.writeDistanceRow(i, rowI);
+                    matrices.writeNextRow(i, nextI);
+                    if (rowI[i] < 0) { // a negative cycle has been found. No valid shortest path can be found.
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * reconstructPath - rebuild the shortest path between 2 vertices, reading the next hops straight from the mapped file
+     * 
+     * @param i source vertex
+     * @param j destination vertex
+     * @param matrices path data
+     */
+    public static void reconstructPath(int i, int j, PathMatrixFile matrices) {
+        if (matrices.getNext(i, j) == Integer.MAX_VALUE) {
+            Pr.x("NO PATH!");
+        } else {
+            List<Integer> path = new ArrayList<Integer>();
+            while (i != j) {
+                i = matrices.getNext(i, j);
+                path.add(i);
+            }
+            Pr.x(path.toString());
+        }
+    }
 }
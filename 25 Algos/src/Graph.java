@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.stream.IntStream;
 
 
 /*
@@ -15,7 +16,10 @@ import java.util.*;
  */
 
 public class Graph {
-    private List<Edge> edgeList; // list containing the edges in the graph
+    // the edges in the graph, as primitive arrays (see EdgeArrays.java). This is the main copy of the edges
+    private EdgeArrays edges;
+    // list containing the edges in the graph as Edge objects. Only built if someone asks for it (see getEdgeList())
+    private List<Edge> edgeList;
 
     // list containing the edges of the minimum spanning tree. This gets progressively updated, 
     // so there could be points in time when it is incomplete. Is this ok in terms of naming then?
@@ -27,7 +31,9 @@ public class Graph {
     private List<Edge> orderedByWeight; // contains the same edges as in edgeList, but it is ordered according to the weight of the edge in ascending order
     private int numNodes; // number of nodes in the graph
 
-    private int[][] edgeWeights; // quick way for getting edge weights. Just an nxn matrix where n is the number of nodes.
+    // compressed sparse row copy of the graph. Used for edge weights and neighbour scans. Replaces the old nxn edgeWeights matrix,
+    // which needed O(V^2) memory (40GB for 100k nodes). See CSRGraph.java
+    private CSRGraph csr;
 
     /**
      * WeightedGraph: constructor
@@ -39,11 +45,8 @@ public class Graph {
         this.numNodes = numNodes;
         this.isDirected = isDirected;
         this.isWeighted = isWeighted;
-        edgeWeights = new int[numNodes][numNodes];
-        edgeList = new ArrayList<Edge>();
+        this.edges = new EdgeArrays(edges.length);
         minSpanningTree = new ArrayList<Edge>();
-        nodeList = new ArrayList<Integer>();
-        
 
         for (int i = 0; i < edges.length; i++) {
             int source, dest, weight;
@@ -56,46 +59,89 @@ public class Graph {
                 weight = -1;
             }
             
-            /*
-             * TODO: is it not the case if this is an undirected graph that we should add 2 edge objects here? One for each direction...
-             * Not doing this immediately because I want to make sure that it won't mess anything up (after fixing everything else with recent changes)
-             */
-            Edge newEdge = new Edge(source, dest, weight);
-            edgeList.add(newEdge);
-            
-            // Initialise our edge weights
-            edgeWeights[source][dest] = weight;
-            if (!this.isDirected) {
-                edgeWeights[dest][source] = weight;
-            }
-        }
-        
-        for (int i = 0; i < numNodes; i++) {
-            nodeList.add(i);
+            // Each undirected edge is only stored once here. The CSR arrays store it in both directions for neighbour scans.
+            this.edges.add(source, dest, weight);
         }
 
-        // Create adjacency list from edges 
-        updateAdjList();
+        // Create CSR arrays from edges 
+        updateCSR();
     }
 
-    // create/update adjacency list
+    /**
+     * Graph: constructor for a graph that already exists in CSR form (for example one mapped from disk by GraphFile).
+     * Nothing is copied here. The edge arrays, edgeList, nodeList and adjList are only built if something asks for them,
+     * so algorithms that stick to getCSR() never allocate per-edge objects.
+     * 
+     * @param csr the CSR arrays for the graph
+     */
+    public Graph(CSRGraph csr) {
+        this.csr = csr;
+        this.numNodes = csr.getNumNodes();
+        this.isDirected = csr.isDirected();
+        this.isWeighted = csr.isWeighted();
+        minSpanningTree = new ArrayList<Edge>();
+    }
+
+    // Call this after changing the List<Edge> returned by getEdgeList(). The edge arrays and CSR arrays are rebuilt from it.
+    // The boxed adjacency list is only built again if someone asks for it (see getAdjList()). If nobody has asked for the edge
+    // list there is nothing that could have changed, so this does nothing (a graph built from CSR arrays may not even have edge arrays yet)
     public void updateAdjList() {
-        adjList = new ArrayList<List<Integer>>();
-        // Initialise each list in the adjacency list
-        for (int i = 0; i < numNodes; i++) {
-            adjList.add(new ArrayList<Integer>());
+        if (edgeList == null) {
+            return;
         }
+        edges = new EdgeArrays(edgeList.size());
         for (Edge edge: edgeList) {
-            adjList.get(edge.getSource()).add(edge.getDest());
-            if (!this.isDirected) {
-                adjList.get(edge.getDest()).add(edge.getSource());
-            }
+            edges.add(edge.getSource(), edge.getDest(), edge.getWeight());
         }
+        updateCSR();
+        adjList = null;
     }
 
-    
+    // build the CSR arrays from the edge arrays
+    private void updateCSR() {
+        csr = new CSRGraph(numNodes, edges.getSources(), edges.getDests(), edges.getWeights(), edges.size(), isDirected, isWeighted);
+    }
+
+    // returns 0 if there is no edge between source and dest (same as the old dense matrix did)
     public int getEdgeWeight(int source, int dest) {
-        return edgeWeights[source][dest];
+        return csr.getEdgeWeight(source, dest);
+    }
+
+    public CSRGraph getCSR() {
+        return csr;
+    }
+
+    /**
+     * getEdgeArrays - the edges of the graph as primitive arrays. Use this rather than getEdgeList() in loops over all edges,
+     * it doesn't allocate anything. For a graph built from CSR arrays the edge arrays are only created the first time this is
+     * called. For undirected graphs each edge is stored in both directions in the CSR arrays, so we only take the direction
+     * where source <= dest.
+     * 
+     * @return EdgeArrays holding every edge once
+     */
+    public EdgeArrays getEdgeArrays() {
+        if (edges == null) {
+            edges = new EdgeArrays(isDirected ? csr.getNumArcs() : csr.getNumArcs() / 2 + 1);
+            for (int source = 0; source < numNodes; source++) {
+                for (int arc = csr.getOffset(source); arc < csr.getOffset(source + 1); arc++) {
+                    if (isDirected || source <= csr.getTarget(arc)) {
+                        edges.add(source, csr.getTarget(arc), csr.getWeight(arc));
+                    }
+                }
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * getNeighbours - the neighbours of v as a stream of ints. Fine for convenience, but hot loops should rather go through
+     * the CSR arrays directly (for arc = getCSR().getOffset(v) ...) which doesn't allocate.
+     * 
+     * @param v the vertex
+     * @return IntStream of the neighbours of v
+     */
+    public IntStream getNeighbours(int v) {
+        return IntStream.range(csr.getOffset(v), csr.getOffset(v + 1)).map(csr::getTarget);
     }
 
     // Is it right that we have a function like this here, where the calculation of this depends on a whole other thing executing. NO. Need to clean this up.
@@ -113,16 +159,35 @@ public class Graph {
         minSpanningTree.add(edge);
     }
     
+    // The Edge objects only get created here, the first time someone asks for them. If the list is changed, call updateAdjList()
     public List<Edge> getEdgeList() {
+        if (edgeList == null) {
+            EdgeArrays edges = getEdgeArrays();
+            edgeList = new ArrayList<Edge>(edges.size());
+            for (int i = 0; i < edges.size(); i++) {
+                edgeList.add(edges.toEdge(i));
+            }
+        }
         return edgeList;
     }
 
     public List<Edge> getOrderedByWeightList() {
-        orderedByWeight = orderByWeight(new ArrayList<Edge>(edgeList)); // we copy the list because we destroy it when ordering.
+        orderedByWeight = orderByWeight(getEdgeList()); // a new list, getEdgeList() is left as it is
         return orderedByWeight;
     }
 
+    // boxed adjacency list, only built if someone asks for it. getNeighbours() or the CSR arrays avoid the boxing
     public List<List<Integer>> getAdjList() {
+        if (adjList == null) {
+            adjList = new ArrayList<List<Integer>>();
+            for (int i = 0; i < numNodes; i++) {
+                List<Integer> neighbours = new ArrayList<Integer>();
+                for (int arc = csr.getOffset(i); arc < csr.getOffset(i + 1); arc++) {
+                    neighbours.add(csr.getTarget(arc));
+                }
+                adjList.add(neighbours);
+            }
+        }
         return adjList;
     }
 
@@ -130,44 +195,44 @@ public class Graph {
         return numNodes;
     }
 
+    public boolean isDirected() {
+        return isDirected;
+    }
+
+    public boolean isWeighted() {
+        return isWeighted;
+    }
+
     public List<Integer> getNodeList() {
+        if (nodeList == null) {
+            nodeList = new ArrayList<Integer>();
+            for (int i = 0; i < numNodes; i++) {
+                nodeList.add(i);
+            }
+        }
         return nodeList;
     }
 
 
 
     /**
-     * orderByWeight - uses the basic Quicksort Algorithm (recursive)
+     * orderByWeight - sorts the edges by weight (ties keep their order). Each edge is packed into one long (weight << 32 | index
+     * in edgeList) and the longs are sorted, which doesn't allocate a list per level like the recursive quicksort this used to be
      * 
-     * @param edgeList containing WeightedEdge objects, most likely unsorted (according to edge weight)
-     * @return sorted List<WeightedEdge>
+     * @param edgeList containing Edge objects, most likely unsorted (according to edge weight)
+     * @return sorted List<Edge>
      */
     private List<Edge> orderByWeight(List<Edge> edgeList) {
-        if (edgeList.size() <= 1) {
-            return edgeList;
-        } else {
-            // Select pivot, arrange numbers either side of pivot and recurse
-            Edge pivotEdge = edgeList.get(edgeList.size() - 1);
-            int pivot = pivotEdge.getWeight();
-            List<Edge> beforePivot = new ArrayList<Edge>();
-            List<Edge> afterPivot = new ArrayList<Edge>();
-
-            // Loop through unsorted elements and place them in either beforePivot or afterPivot based on their value relative to pivot
-            for (int i = 0; i < edgeList.size() - 1; i++) {
-                if (edgeList.get(i).getWeight() <= pivot) {
-                    beforePivot.add(edgeList.get(i));
-                } else {
-                    afterPivot.add(edgeList.get(i));
-                }
-            }
-
-            List<Edge> beforePivotSorted = orderByWeight(beforePivot); // recurse on elements before pivot
-            beforePivotSorted.add(pivotEdge); // add pivot back
-            List<Edge> afterPivotSorted = orderByWeight(afterPivot); // recurse on elements after pivot
-
-            beforePivotSorted.addAll(afterPivotSorted); // join the two lists together
-            return beforePivotSorted;
+        long[] keys = new long[edgeList.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) edgeList.get(i).getWeight() << 32) | i;
+        }
+        Arrays.sort(keys);
+        List<Edge> sorted = new ArrayList<Edge>(keys.length);
+        for (long key: keys) {
+            sorted.add(edgeList.get((int) key));
         }
+        return sorted;
     }
 
     // debug function for checking if sorting of edgeList works... It does.
@@ -184,6 +249,7 @@ public class Graph {
 
     // debug function for checking adjList is correctly populated
     public void printAdjList() {
+        List<List<Integer>> adjList = getAdjList();
         for (int i = 0; i < adjList.size(); i++) {
             List<Integer> adj = adjList.get(i);
             System.out.println("NODE: " + i);
@@ -0,0 +1,181 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * A binary file format for graphs so that big graphs only have to be built once. After that they can be opened again
+ * with FileChannel.map, which means nothing is read up front: the OS pages the parts of the file we touch into memory
+ * as we touch them. Opening a graph is O(1) in the size of the graph and if several processes open the same file they
+ * all share the same pages in the page cache.
+ *
+ * The file is just the CSR arrays (see CSRGraph.java) written one after the other:
+ *
+ *      header      32 bytes: magic, version, numNodes, numArcs, flags (directed/weighted), rest reserved
+ *      offsets     (numNodes + 1) ints
+ *      targets     numArcs ints
+ *      weights     numArcs ints
+ *
+ * The ints are written in the byte order of the machine that wrote the file (so reading needs no byte swapping in the
+ * normal case). When reading we check which byte order makes the magic number come out right and use that.
+ *
+ * The CSRGraph we get back reads straight from the mapped buffers, so Dijkstra, Bellman-Ford, BFS, DFS etc. (which only
+ * use getCSR()) run over the file without any Edge objects or ArrayLists being created.
+ *
+ * A single mapping can be at most 2GB, so each array is mapped in segments of CSRGraph.SEGMENT_INTS ints (1GB), the same
+ * segments CSRGraph keeps its arrays in (and the same idea as the row segments of PathMatrixFile.java). The file layout
+ * doesn't change, the segments are just consecutive pieces of each section. The only limit left is that arc indices are
+ * ints, so a graph can have at most 2^31 - 1 arcs (remember undirected edges are stored twice).
+ */
+
+public class GraphFile {
+    private static final int MAGIC = 0x43535247; // "CSRG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int FLAG_DIRECTED = 1;
+    private static final int FLAG_WEIGHTED = 2;
+
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, 4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+        Graph wg = new Graph(weightedEdges, 5, true, true); // create new directed, weighted graph (true, true)
+
+        try {
+            File file = File.createTempFile("graph", ".csr");
+            file.deleteOnExit();
+            write(wg, file.getPath());
+
+            Graph mapped = read(file.getPath()); // nothing is read from the file until we actually look at it
+            mapped.getCSR().print();
+            Pr.x("Weight of edge 4 -> 3: " + mapped.getEdgeWeight(4, 3));
+        } catch (IOException e) {
+            Pr.x("Could not write/read graph file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * write - write the CSR arrays of a graph out to a file. The file is sized up front and then each section is
+     * mapped and bulk copied into, so we never need a second copy of the arrays on the heap.
+     *
+     * @param g the graph to write
+     * @param fileName the file to write to (overwritten if it exists)
+     * @throws IOException if the file can't be written or the graph is too big for the format
+     */
+    public static void write(Graph g, String fileName) throws IOException {
+        CSRGraph csr = g.getCSR();
+        int numNodes = csr.getNumNodes();
+        int numArcs = csr.getNumArcs();
+        int flags = (csr.isDirected() ? FLAG_DIRECTED : 0) | (csr.isWeighted() ? FLAG_WEIGHTED : 0);
+        ByteOrder order = ByteOrder.nativeOrder();
+
+        long offsetsPos = HEADER_BYTES;
+        long targetsPos = offsetsPos + 4L * (numNodes + 1);
+        long weightsPos = targetsPos + 4L * numArcs;
+        long fileSize = weightsPos + 4L * numArcs;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(order);
+            header.putInt(MAGIC).putInt(VERSION).putInt(numNodes).putInt(numArcs).putInt(flags);
+            header.rewind();
+            channel.write(header, 0);
+
+            copy(csr.getOffsets(), map(channel, FileChannel.MapMode.READ_WRITE, offsetsPos, numNodes + 1, order));
+            copy(csr.getTargets(), map(channel, FileChannel.MapMode.READ_WRITE, targetsPos, numArcs, order));
+            copy(csr.getWeights(), map(channel, FileChannel.MapMode.READ_WRITE, weightsPos, numArcs, order));
+
+            if (channel.size() != fileSize) {
+                throw new IOException("Graph file " + fileName + " was not fully written");
+            }
+        }
+    }
+
+    /**
+     * read - open a graph file written by write(). Only the header is actually read here, the arrays are mapped.
+     * The channel is closed straight away. The mappings stay valid until the buffers are garbage collected.
+     *
+     * @param fileName the file to open
+     * @return Graph backed by the mapped file
+     * @throws IOException if the file can't be opened or is not a graph file
+     */
+    public static Graph read(String fileName) throws IOException {
+        return new Graph(readCSR(fileName));
+    }
+
+    /**
+     * readCSR - same as read(), but just gives back the CSR arrays without wrapping them in a Graph
+     *
+     * @param fileName the file to open
+     * @return CSRGraph backed by the mapped file
+     * @throws IOException if the file can't be opened or is not a graph file
+     */
+    public static CSRGraph readCSR(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException(fileName + " is too short to be a graph file");
+                }
+            }
+            header.flip();
+
+            // figure out which byte order the file was written in from the magic number
+            ByteOrder order = ByteOrder.BIG_ENDIAN;
+            if (header.order(order).getInt(0) != MAGIC) {
+                order = ByteOrder.LITTLE_ENDIAN;
+                if (header.order(order).getInt(0) != MAGIC) {
+                    throw new IOException(fileName + " is not a graph file");
+                }
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException(fileName + " has unsupported graph file version " + header.getInt(4));
+            }
+            int numNodes = header.getInt(8);
+            int numArcs = header.getInt(12);
+            int flags = header.getInt(16);
+
+            long offsetsPos = HEADER_BYTES;
+            long targetsPos = offsetsPos + 4L * (numNodes + 1);
+            long weightsPos = targetsPos + 4L * numArcs;
+            if (channel.size() < weightsPos + 4L * numArcs) {
+                throw new IOException(fileName + " is truncated");
+            }
+
+            IntBuffer[] offsets = map(channel, FileChannel.MapMode.READ_ONLY, offsetsPos, numNodes + 1, order);
+            IntBuffer[] targets = map(channel, FileChannel.MapMode.READ_ONLY, targetsPos, numArcs, order);
+            IntBuffer[] weights = map(channel, FileChannel.MapMode.READ_ONLY, weightsPos, numArcs, order);
+
+            return new CSRGraph(numNodes, offsets, targets, weights, (flags & FLAG_DIRECTED) != 0, (flags & FLAG_WEIGHTED) != 0);
+        }
+    }
+
+    /**
+     * map - map a section of the file holding numInts ints, segment by segment, and view each segment as an IntBuffer
+     *
+     * @param channel the open file
+     * @param mode read only or read/write
+     * @param position where the section starts in the file
+     * @param numInts how many ints are in the section
+     * @param order byte order of the file
+     * @return IntBuffer[] with one buffer per segment of the section (see CSRGraph.numSegments())
+     * @throws IOException if mapping fails
+     */
+    private static IntBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long position, int numInts, ByteOrder order) throws IOException {
+        IntBuffer[] segments = new IntBuffer[CSRGraph.numSegments(numInts)];
+        for (int s = 0; s < segments.length; s++) {
+            long from = (long) s << CSRGraph.SEGMENT_SHIFT;
+            long count = Math.min(CSRGraph.SEGMENT_INTS, numInts - from);
+            segments[s] = channel.map(mode, position + 4 * from, 4 * count).order(order).asIntBuffer();
+        }
+        return segments;
+    }
+
+    // bulk copy each segment into the matching segment of the file (both sides are split at the same places)
+    private static void copy(IntBuffer[] from, IntBuffer[] to) {
+        for (int s = 0; s < from.length; s++) {
+            to[s].put(from[s]);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * A heuristic for AStarSearch: a guess of the distance from a vertex to the target. For A* to find the shortest path the
+ * guess must never be more than the real distance (it must be "admissible"). If it also never drops by more than the
+ * weight of an edge when moving along that edge ("consistent"), no vertex ever has to be visited twice.
+ *
+ * Implementations: CoordinateHeuristic (straight line distance) and LandmarkHeuristic (ALT, triangle inequality with
+ * precomputed distances to a few landmark vertices).
+ */
+
+public interface Heuristic {
+    /**
+     * estimate - lower bound on the distance from vertex to target
+     *
+     * @param vertex the vertex we are at
+     * @param target the vertex we want to get to
+     * @return a guess of the distance that is never more than the real distance
+     */
+    int estimate(int vertex, int target);
+}
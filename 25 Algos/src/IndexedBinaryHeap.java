@@ -0,0 +1,112 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * A binary min heap of vertices (see VertexHeap.java). Same idea as the max heap in HeapSort.java, but the heap array holds
+ * vertices ordered by key, and we also keep track of where in the heap each vertex is:
+ *
+ * - heap[i] which is the vertex at position i in the heap (children of i are at 2i + 1 and 2i + 2)
+ * - position[v] which is the position of vertex v in heap (-1 if v is not in the heap)
+ * - key[v] which is the current key of vertex v
+ *
+ * Knowing the position of each vertex is what makes decrease-key possible: we lower the key and sift the vertex up from
+ * where it is. Everything is O(log V).
+ */
+
+public class IndexedBinaryHeap implements VertexHeap {
+    private int[] heap;
+    private int[] position;
+    private int[] key;
+    private int size; // number of vertices in the heap
+
+    public IndexedBinaryHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        key = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public void insertOrDecrease(int vertex, int newKey) {
+        if (position[vertex] < 0) {
+            heap[size] = vertex;
+            position[vertex] = size;
+            size++;
+        } else if (newKey >= key[vertex]) {
+            return; // not a decrease
+        }
+        key[vertex] = newKey;
+        siftUp(position[vertex]);
+    }
+
+    // set the key of a vertex that is already in the heap, whether it goes up or down (for callers whose priorities can get worse)
+    public void changeKey(int vertex, int newKey) {
+        int oldKey = key[vertex];
+        key[vertex] = newKey;
+        if (newKey < oldKey) {
+            siftUp(position[vertex]);
+        } else {
+            siftDown(position[vertex]);
+        }
+    }
+
+    public int extractMin() {
+        int min = heap[0];
+        size--;
+        if (size > 0) {
+            move(heap[size], 0); // move the last vertex to the root and sift it down to where it belongs
+            siftDown(0);
+        }
+        position[min] = -1;
+        return min;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int vertex) {
+        return position[vertex] >= 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    // move the vertex at index up while it is smaller than its parent
+    private void siftUp(int index) {
+        int vertex = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (key[heap[parent]] <= key[vertex]) break;
+            move(heap[parent], index); // move the parent down into the hole
+            index = parent;
+        }
+        move(vertex, index);
+    }
+
+    // move the vertex at index down while it is bigger than one of its children
+    private void siftDown(int index) {
+        int vertex = heap[index];
+        while (true) {
+            int child = index * 2 + 1;
+            if (child >= size) break;
+            if (child + 1 < size && key[heap[child + 1]] < key[heap[child]]) {
+                child++; // right child is the smaller one
+            }
+            if (key[heap[child]] >= key[vertex]) break;
+            move(heap[child], index); // move the smaller child up into the hole
+            index = child;
+        }
+        move(vertex, index);
+    }
+
+    private void move(int vertex, int index) {
+        heap[index] = vertex;
+        position[vertex] = index;
+    }
+}
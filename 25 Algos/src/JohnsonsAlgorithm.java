@@ -0,0 +1,157 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * From Wikipedia:
+ * ======================================================================================================================================
+ * Johnson's algorithm is a way to find the shortest paths between all pairs of vertices in an edge-weighted directed graph. It allows
+ * some of the edge weights to be negative numbers, but no negative-weight cycles may exist. It works by using the Bellman–Ford
+ * algorithm to compute a transformation of the input graph that removes all negative weights, allowing Dijkstra's algorithm to be
+ * used on the transformed graph.
+ * ======================================================================================================================================
+ *
+ * Floyd-Warshall is O(V^3) no matter how many edges there are. Johnson's algorithm is one Bellman-Ford (O(VE)) plus one
+ * Dijkstra per vertex (O(VE log V) in total), which is a lot less for sparse graphs.
+ *
+ * 1. Add an extra vertex q with a 0 weight edge to every vertex and run Bellman-Ford from q. h[v] (the "potential" of v) is the
+ *    distance from q to v. If Bellman-Ford finds a negative cycle we stop.
+ * 2. Reweight every edge u -> v to w + h[u] - h[v]. This is never negative (h[v] <= h[u] + w is exactly what Bellman-Ford
+ *    guarantees), and every path from s to t changes by the same amount h[s] - h[t], so shortest paths stay shortest.
+ * 3. Run Dijkstra on the reweighted graph, one per vertex in parallel, and turn the distances back with - h[s] + h[t].
+ *
+ * The Dijkstras in step 3 go backwards (on the reversed graph) from each destination t rather than forwards from each source.
+ * That way the prev tree of the search from t is exactly the next hop column for t: prev[s] is the vertex after s on the
+ * path to t. Taking the first hops from separate forward searches instead could go round in circles when there are cycles
+ * of 0 weight, as two searches can pick different paths of the same length.
+ *
+ * The results come back as the same distanceMatrix / vertexConnections matrices FloydWarshall.java uses (Integer.MAX_VALUE where
+ * there is no path, vertexConnections[i][j] is the next vertex after i on the path to j), so FloydWarshall.reconstructPath()
+ * works on them.
+ */
+
+public class JohnsonsAlgorithm {
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 2, -2}, {2, 3, 2}, {3, 1, -1}, {1, 2, 3}, {1, 0, 4}}; // same graph as FloydWarshall.java
+        int n = 4;
+        int[][] distanceMatrix = new int[n][n];
+        int[][] vertexConnections = new int[n][n];
+
+        if (calculateShortestPaths(distanceMatrix, vertexConnections, new Graph(weightedEdges, n, true, true), ForkJoinPool.commonPool())) {
+            for (int i = 0; i < n; i++) {
+                Pr.x(Arrays.toString(distanceMatrix[i]));
+            }
+            FloydWarshall.reconstructPath(0, 1, vertexConnections);
+        }
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java JohnsonsAlgorithm benchmark
+        }
+    }
+
+    // Johnson against the blocked Floyd-Warshall on 2000 vertices, takes seconds
+    private static void benchmark() {
+        // Timing against the blocked Floyd-Warshall on a sparse graph with negative edges (but no negative cycles, see SPFA.java)
+        int n = 2000;
+        Random random = new Random(1);
+        int[] p = random.ints(n, 0, 1000).toArray();
+        int[][] randomEdges = new int[n * 5][];
+        for (int e = 0; e < randomEdges.length; e++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            randomEdges[e] = new int[] {u, v, random.nextInt(100) + p[u] - p[v]};
+        }
+        int[][] distanceMatrix = new int[n][n];
+        int[][] vertexConnections = new int[n][n];
+        int[] dist = new int[n * n];
+        int[] next = new int[n * n];
+        BlockedFloydWarshall.initDistanceMatrix(dist, next, n, randomEdges);
+
+        long start = System.nanoTime();
+        calculateShortestPaths(distanceMatrix, vertexConnections, new Graph(randomEdges, n, true, true), ForkJoinPool.commonPool());
+        Pr.x("Johnson: " + (System.nanoTime() - start) / 1000000 + "ms");
+        start = System.nanoTime();
+        BlockedFloydWarshall.calculateShortestPaths(dist, next, n, ForkJoinPool.commonPool());
+        boolean same = true;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int d = dist[i * n + j] == BlockedFloydWarshall.INF ? Integer.MAX_VALUE : dist[i * n + j];
+                same &= d == distanceMatrix[i][j];
+            }
+        }
+        Pr.x("Blocked Floyd-Warshall: " + (System.nanoTime() - start) / 1000000 + "ms, same distances: " + same);
+    }
+
+    /**
+     * calculateShortestPaths - shortest paths between all pairs of vertices using Johnson's algorithm
+     *
+     * @param distanceMatrix n x n, filled with the distance from i to j (Integer.MAX_VALUE if there is no path)
+     * @param vertexConnections n x n, filled with the vertex after i on the shortest path from i to j (Integer.MAX_VALUE if there is no path)
+     * @param wg weighted graph object
+     * @param pool the threads to run the Dijkstras on
+     * @return boolean = false if the graph contains a negative cycle (the matrices are then not filled in), true otherwise
+     */
+    public static boolean calculateShortestPaths(int[][] distanceMatrix, int[][] vertexConnections, Graph wg, ForkJoinPool pool) {
+        CSRGraph csr = wg.getCSR();
+        int n = csr.getNumNodes();
+
+        // 1. potentials from Bellman-Ford, starting at an extra vertex n with a 0 weight edge to every vertex
+        int[] h = new int[n + 1];
+        if (!BellmanFord.calculateShortestPaths(h, new int[n + 1], withExtraVertex(csr), n)) {
+            return false;
+        }
+
+        // 2. reweight. The CSR layout stays the same, only the weights change
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[csr.getNumArcs()];
+        int[] weights = new int[csr.getNumArcs()];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = csr.getOffset(u + 1);
+            for (int arc = csr.getOffset(u); arc < csr.getOffset(u + 1); arc++) {
+                targets[arc] = csr.getTarget(arc);
+                weights[arc] = csr.getWeight(arc) + h[u] - h[targets[arc]];
+            }
+        }
+        // searching backwards from each destination j (on the reversed graph), prev[i] is the vertex after i on the path to j
+        Graph reversed = new Graph(new CSRGraph(n, offsets, targets, weights, true, true).reverse());
+
+        // 3. Dijkstra to every vertex. Each thread keeps its own arrays and heap
+        ThreadLocal<int[][]> scratch = ThreadLocal.withInitial(() -> new int[][] {new int[n], new int[n]});
+        ThreadLocal<VertexHeap> heaps = ThreadLocal.withInitial(() -> new IndexedBinaryHeap(n));
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(j -> {
+            int[] dist = scratch.get()[0];
+            int[] prev = scratch.get()[1];
+            DijkstrasAlgorithm.calculateShortestPaths(dist, prev, reversed, j, heaps.get());
+
+            for (int i = 0; i < n; i++) {
+                if (dist[i] == Integer.MAX_VALUE) {
+                    distanceMatrix[i][j] = Integer.MAX_VALUE;
+                    vertexConnections[i][j] = Integer.MAX_VALUE;
+                } else {
+                    distanceMatrix[i][j] = dist[i] - h[i] + h[j];
+                    vertexConnections[i][j] = i == j ? j : prev[i];
+                }
+            }
+        })).join();
+        return true;
+    }
+
+    // the graph with an extra vertex (numbered n) that has a 0 weight edge to every other vertex
+    private static Graph withExtraVertex(CSRGraph csr) {
+        int n = csr.getNumNodes();
+        int numEdges = csr.getNumArcs() + n;
+        int[] sources = new int[numEdges], dests = new int[numEdges], weights = new int[numEdges];
+        for (int u = 0; u < n; u++) {
+            for (int arc = csr.getOffset(u); arc < csr.getOffset(u + 1); arc++) {
+                sources[arc] = u;
+                dests[arc] = csr.getTarget(arc);
+                weights[arc] = csr.getWeight(arc);
+            }
+            sources[csr.getNumArcs() + u] = n;
+            dests[csr.getNumArcs() + u] = u;
+        }
+        return new Graph(new CSRGraph(n + 1, sources, dests, weights, numEdges, true, true));
+    }
+}
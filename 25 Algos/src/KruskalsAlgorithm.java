@@ -16,8 +16,8 @@ import java.util.*;
  * More simply (from https://www.techiedelight.com/kruskals-algorithm-for-finding-minimum-spanning-tree/)
  * A Minimum Spanning Tree is a spanning tree of a connected, undirected graph. It connects all the vertices with minimal total weighting for its edges.
  * 
- * For this implementation we are assuming that the graph is connected, so we are looking for a minimum spanning tree (MST) (only 1). Not a forest.
- * At a later stage it will be good to extend this for unconnected graphs as well. 
+ * If the graph is not connected we get a minimum spanning forest (the MST of each connected component), with fewer than V - 1 edges.
+ * When it is connected we stop as soon as the tree has all V - 1 edges.
  * 
  * 
  * Basic algorithm:
@@ -39,35 +39,172 @@ import java.util.*;
  */
 
 public class KruskalsAlgorithm {
+    private static final int BASE_SIZE = 1024; // ranges this small (or smaller than the number of nodes) just get sorted
+    private static final int PIVOT_SAMPLES = 31;
+
     public static void main(String args[]) {
         //int[][] weightedEdges = {{0, 1, 7}, {1, 2, 8}, {0, 3, 5}, {1, 3, 9}, {1, 4, 7}, {2, 4, 5}, {3, 4, 15}, {3, 5, 6}, {4, 5, 8}, {4, 6, 9}, {5, 6, 11}};
         int[][] weightedEdges = {{0, 1, 4}, {0, 7, 8}, {1, 2, 8}, {1, 7, 11}, {2, 3, 7}, {2, 8, 2}, {2, 5, 4}, {3, 4, 9}, {3, 5, 14}, {4, 5, 10}, {5, 6, 2}, {6, 7, 1}, {6, 8, 6}, {7, 8, 7}};
         Graph wg = new Graph(weightedEdges, 9, false, true); // create new undirected, weighted graph (false, true)
         findMST(wg);
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java KruskalsAlgorithm benchmark
+        }
     }
 
-    private static List<UFNode> initUFNodes(int numNodes) {
-        List<UFNode> ufNodes = new ArrayList<UFNode>(); // List of nodes for use in UnionFind logic
-        // for each node in the graph we create a UFNode. These function as linked lists for tracking the progress of finding the MST
-        for (int i = 0; i < numNodes; i++) {
-            UFNode newNode = new UFNode(i, i); // Instantiate a ufnode and set it as its own root. Each node is a disjoint set in the beginning
-            ufNodes.add(newNode);
+    // timing on a big random graph, too slow to run every time the demo runs
+    private static void benchmark() {
+        // a random graph with 1M vertices and 10M edges, Filter-Kruskal against sorting all the edges first
+        Random random = new Random(1);
+        int n = 1000000, m = 10000000;
+        int[] sources = new int[m], dests = new int[m], weights = new int[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = random.nextInt(n);
+            dests[i] = random.nextInt(n);
+            weights[i] = random.nextInt(1000000);
+        }
+        Graph wg = new Graph(new CSRGraph(n, sources, dests, weights, m, false, true));
+        sources = dests = weights = null;
+        EdgeArrays edges = wg.getEdgeArrays();
+
+        long start = System.nanoTime();
+        long[] keys = packKeys(edges);
+        Arrays.parallelSort(keys);
+        UnionFind sets = new UnionFind(n);
+        long sortedWeight = 0;
+        for (long key: keys) {
+            int i = (int) key;
+            if (sets.union(edges.getSource(i), edges.getDest(i))) sortedWeight += edges.getWeight(i);
         }
-        return ufNodes;
+        Pr.x("Sort everything then Kruskal: " + (System.nanoTime() - start) / 1000000 + "ms, weight " + sortedWeight);
+        keys = null;
+
+        start = System.nanoTime();
+        int[] tree = filterKruskal(wg);
+        long time = System.nanoTime() - start;
+        long weight = 0;
+        for (int i: tree) {
+            weight += edges.getWeight(i);
+        }
+        Pr.x("Filter-Kruskal: " + time / 1000000 + "ms, weight " + weight + ", " + tree.length + " edges");
     }
 
     private static void findMST(Graph wg) {
-        List<UFNode> ufNodes = initUFNodes(wg.getNumNodes()); // List of nodes for use in UnionFind logic
-        List<Edge> orderedByWeight = wg.getOrderedByWeightList(); // get the list of edges ordered by weight
-        
-        for (Edge edge: orderedByWeight) {
-            // do a find() for the nodes in this edge - find gets the root of a node
-            if (UnionFind.find(edge.getSource(), ufNodes) != UnionFind.find(edge.getDest(), ufNodes)) {
-                // the two nodes do not have the same origin, so we know we aren't creating a cycle and can safely add this edge to the MST
-                UnionFind.union(edge, ufNodes, wg);
-            }
+        EdgeArrays edges = wg.getEdgeArrays();
+        for (int i: filterKruskal(wg)) {
+            wg.updateMinSpanningTree(edges.toEdge(i));
         }
-        
         wg.printMinSpanningTree(); // print out the minimum spanning tree
     }
-}
\ No newline at end of file
+
+    /**
+     * filterKruskal - minimum spanning forest of an undirected weighted graph (Osipov, Sanders & Singler's Filter-Kruskal).
+     * 
+     * Plain Kruskal sorts all E edges, but once the forest is done most of the heavy edges only join nodes that are already
+     * connected. Filter-Kruskal avoids sorting those:
+     * 
+     *      FILTER-KRUSKAL(E)
+     *          if E is small: sort E and do plain Kruskal on it
+     *          pick a pivot weight p
+     *          FILTER-KRUSKAL(edges lighter than p)
+     *          drop the heavier edges whose nodes are now in the same set
+     *          FILTER-KRUSKAL(heavier edges that are left)
+     * 
+     * The light side is always finished before the heavy side, so edges still get union'ed in order of weight. Every edge
+     * is a long key (weight << 32 | edge index), so sorting, partitioning and filtering all work on one primitive array:
+     * no Edge objects, no Lists, and ordering by key is ordering by weight with ties broken by edge index. Ranges get sorted
+     * with Arrays.parallelSort (on the common ForkJoinPool).
+     * 
+     * @param wg undirected weighted graph
+     * @return int[] indices (into wg.getEdgeArrays()) of the edges of the minimum spanning forest, in the order they were
+     *         added (increasing weight)
+     */
+    public static int[] filterKruskal(Graph wg) {
+        EdgeArrays edges = wg.getEdgeArrays();
+        long[] keys = packKeys(edges);
+        UnionFind sets = new UnionFind(wg.getNumNodes());
+        int[] tree = new int[Math.max(0, wg.getNumNodes() - 1)];
+        int threshold = Math.max(BASE_SIZE, wg.getNumNodes());
+        filterKruskal(keys, 0, keys.length, edges.getSources(), edges.getDests(), sets, tree, threshold);
+        return Arrays.copyOf(tree, wg.getNumNodes() - sets.getCount()); // every union added one tree edge
+    }
+
+    // weight << 32 | index for every edge. Sorting these as signed longs sorts by weight (negative weights too), then by index
+    private static long[] packKeys(EdgeArrays edges) {
+        int[] weights = edges.getWeights();
+        long[] keys = new long[edges.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) weights[i] << 32) | i;
+        }
+        return keys;
+    }
+
+    // Filter-Kruskal on keys[from, to)
+    private static void filterKruskal(long[] keys, int from, int to, int[] sources, int[] dests, UnionFind sets, int[] tree, int threshold) {
+        if (sets.getCount() == 1) {
+            return; // everything is connected, the rest of the edges can only make cycles
+        }
+        if (to - from > threshold) {
+            long pivot = pickPivot(keys, from, to);
+            int middle = partition(keys, from, to, pivot);
+            if (middle > from && middle < to) {
+                filterKruskal(keys, from, middle, sources, dests, sets, tree, threshold);
+                int kept = filter(keys, middle, to, sources, dests, sets);
+                filterKruskal(keys, middle, kept, sources, dests, sets, tree, threshold);
+                return;
+            }
+        }
+
+        // small enough (or a useless pivot): sort and do plain Kruskal
+        Arrays.parallelSort(keys, from, to);
+        for (int k = from; k < to; k++) {
+            int i = (int) keys[k];
+            int treeSize = sets.getNumNodes() - sets.getCount();
+            if (sets.union(sources[i], dests[i])) {
+                tree[treeSize] = i;
+                if (sets.getCount() == 1) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // median of PIVOT_SAMPLES keys spread evenly over [from, to)
+    private static long pickPivot(long[] keys, int from, int to) {
+        long[] sample = new long[PIVOT_SAMPLES];
+        long step = (long) (to - from) / PIVOT_SAMPLES;
+        for (int s = 0; s < PIVOT_SAMPLES; s++) {
+            sample[s] = keys[from + (int) (s * step)];
+        }
+        Arrays.sort(sample);
+        return sample[PIVOT_SAMPLES / 2];
+    }
+
+    // move the keys <= pivot to the front of [from, to). Returns where the keys > pivot start
+    private static int partition(long[] keys, int from, int to, long pivot) {
+        int left = from, right = to - 1;
+        while (true) {
+            while (left <= right && keys[left] <= pivot) left++;
+            while (left <= right && keys[right] > pivot) right--;
+            if (left >= right) {
+                return left;
+            }
+            long swap = keys[left];
+            keys[left] = keys[right];
+            keys[right] = swap;
+        }
+    }
+
+    // keep only the edges in keys[from, to) whose nodes are in different sets, packed to the front. Returns the new end
+    private static int filter(long[] keys, int from, int to, int[] sources, int[] dests, UnionFind sets) {
+        int kept = from;
+        for (int k = from; k < to; k++) {
+            int i = (int) keys[k];
+            if (sets.find(sources[i]) != sets.find(dests[i])) {
+                keys[kept++] = keys[k];
+            }
+        }
+        return kept;
+    }
+}
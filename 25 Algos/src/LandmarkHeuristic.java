@@ -0,0 +1,70 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * ALT heuristic (A*, Landmarks, Triangle inequality). We pick a few "landmark" vertices and work out the distance from
+ * every landmark to every vertex, and from every vertex to every landmark, up front. Then for a landmark L the triangle
+ * inequality gives two lower bounds on the distance from v to t:
+ *
+ *      dist(v, t) >= dist(L, t) - dist(L, v)
+ *      dist(v, t) >= dist(v, L) - dist(t, L)
+ *
+ * The heuristic is the biggest of these bounds over all the landmarks. It is always consistent, so A* never visits a
+ * vertex twice. Landmarks that are far away "behind" the target give the best bounds, so we pick them one at a time,
+ * each time taking the vertex farthest from the landmarks picked so far.
+ *
+ * Memory is 2 * numLandmarks ints per vertex. Works for any non-negative weights, no coordinates needed.
+ */
+
+public class LandmarkHeuristic implements Heuristic {
+    private int[][] fromLandmark; // fromLandmark[l][v] = distance from landmark l to v
+    private int[][] toLandmark; // toLandmark[l][v] = distance from v to landmark l
+
+    public LandmarkHeuristic(Graph wg, int numLandmarks) {
+        int n = wg.getNumNodes();
+        Graph reversed = new Graph(wg.getCSR().reverse());
+        VertexHeap heap = new RadixHeap(n);
+        int[] prev = new int[n];
+        fromLandmark = new int[numLandmarks][n];
+        toLandmark = new int[numLandmarks][n];
+
+        int[] minDist = new int[n]; // distance from each vertex to the closest landmark picked so far
+        Arrays.fill(minDist, Integer.MAX_VALUE);
+        int landmark = 0;
+
+        for (int l = 0; l < numLandmarks; l++) {
+            DijkstrasAlgorithm.calculateShortestPaths(fromLandmark[l], prev, wg, landmark, heap);
+            DijkstrasAlgorithm.calculateShortestPaths(toLandmark[l], prev, reversed, landmark, heap); // distances to the landmark
+
+            // next landmark: the reachable vertex farthest from all the landmarks so far
+            int next = landmark;
+            for (int v = 0; v < n; v++) {
+                if (fromLandmark[l][v] != Integer.MAX_VALUE) {
+                    minDist[v] = Math.min(minDist[v], fromLandmark[l][v]);
+                }
+                if (minDist[v] != Integer.MAX_VALUE && minDist[v] > minDist[next]) {
+                    next = v;
+                }
+            }
+            landmark = next;
+        }
+    }
+
+    public int estimate(int vertex, int target) {
+        int best = 0;
+        for (int l = 0; l < fromLandmark.length; l++) {
+            int[] from = fromLandmark[l];
+            int[] to = toLandmark[l];
+            // skip bounds where a distance is infinite (the landmark can't reach / be reached), they tell us nothing
+            if (from[target] != Integer.MAX_VALUE && from[vertex] != Integer.MAX_VALUE) {
+                best = Math.max(best, from[target] - from[vertex]);
+            }
+            if (to[vertex] != Integer.MAX_VALUE && to[target] != Integer.MAX_VALUE) {
+                best = Math.max(best, to[vertex] - to[target]);
+            }
+        }
+        return best;
+    }
+}
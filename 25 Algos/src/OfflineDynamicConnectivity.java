@@ -0,0 +1,255 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * Answers "are u and v connected right now?" for an undirected graph that edges are added to and removed from, when the
+ * whole list of events (adds, removes and questions) is known up front. Union-find can only ever add edges, but knowing
+ * everything in advance gets around that ("offline" dynamic connectivity, divide and conquer over time).
+ *
+ * Time here is counted in queries: query number q sees every edge that was added before it and not yet removed. So each
+ * edge is in the graph for an interval of queries [added, removed). We put the intervals in a segment tree over the queries:
+ *
+ * - the root covers all Q queries, its children the first and second half, and so on down to one query per leaf
+ * - an interval gets stored at the O(log Q) highest nodes whose range is completely inside it (same as a range update in
+ *   an ordinary segment tree)
+ *
+ * Then we walk the tree depth first with a RollbackUnionFind. Going into a node we union the edges stored there. Those
+ * edges are present for every query under that node, so at a leaf the union-find holds exactly the graph at that query,
+ * and the answer is a find. Coming back out of the node we roll its unions back, so the siblings don't see them.
+ *
+ * Each edge is union'ed at O(log Q) nodes and each union or find is O(log V) (no path compression with rollback), so
+ * everything is O((E + Q) log Q log V) for E edge events and Q queries.
+ *
+ * The events are kept in primitive arrays, and the intervals are stored per tree node the same way CSRGraph stores arcs
+ * per vertex (count them per node, prefix sum into offsets, then fill), so millions of events don't make millions of objects.
+ */
+
+public class OfflineDynamicConnectivity {
+    private static final int ADD = 0, REMOVE = 1, QUERY = 2;
+
+    private int numNodes;
+    private int[] type, us, vs; // the events, in order
+    private int numEvents;
+    private int numQueries;
+
+    // segment tree of edge intervals, built by solve(): node i covers queries [start, end) and has children 2i and 2i + 1
+    private int leaves; // number of leaves, a power of 2 >= numQueries
+    private int[] nodeOffsets; // the edges stored at node i are nodeEdgesU/V[nodeOffsets[i] .. nodeOffsets[i + 1])
+    private int[] nodeEdgesU, nodeEdgesV;
+    private int[] queryU, queryV; // the vertices of each query
+    private RollbackUnionFind sets;
+    private boolean[] answers;
+
+    public static void main(String args[]) {
+        OfflineDynamicConnectivity connectivity = new OfflineDynamicConnectivity(5);
+        connectivity.addEdge(0, 1);
+        connectivity.addEdge(1, 2);
+        connectivity.query(0, 2); // 0 - 1 - 2: true
+        connectivity.removeEdge(0, 1);
+        connectivity.query(0, 2); // false
+        connectivity.addEdge(2, 3);
+        connectivity.addEdge(3, 0);
+        connectivity.query(0, 1); // 0 - 3 - 2 - 1: true
+        connectivity.query(0, 4); // false
+        Pr.x("Answers: " + Arrays.toString(connectivity.solve()));
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java OfflineDynamicConnectivity benchmark
+        }
+    }
+
+    // 2M events take a few seconds to generate and solve, so not part of the demo
+    private static void benchmark() {
+        // Timing: 2M random events on 100k vertices (half adds, a quarter removes of a random edge still in the graph, a quarter queries)
+        Random random = new Random(1);
+        int n = 100000;
+        OfflineDynamicConnectivity connectivity = new OfflineDynamicConnectivity(n);
+        long[] present = new long[2000000]; // edges currently in the graph, so we can pick one to remove
+        int numPresent = 0;
+        for (int i = 0; i < 2000000; i++) {
+            int kind = random.nextInt(4);
+            if (kind <= 1 || (kind == 2 && numPresent == 0)) {
+                int u = random.nextInt(n), v = random.nextInt(n);
+                connectivity.addEdge(u, v);
+                present[numPresent++] = ((long) u << 32) | v;
+            } else if (kind == 2) {
+                int index = random.nextInt(numPresent);
+                long edge = present[index];
+                present[index] = present[--numPresent];
+                connectivity.removeEdge((int) (edge >>> 32), (int) edge);
+            } else {
+                connectivity.query(random.nextInt(n), random.nextInt(n));
+            }
+        }
+        long start = System.nanoTime();
+        boolean[] answers = connectivity.solve();
+        int connected = 0;
+        for (boolean answer: answers) {
+            if (answer) connected++;
+        }
+        Pr.x(answers.length + " queries over 2M events answered in " + (System.nanoTime() - start) / 1000000 + "ms (" + connected + " connected)");
+    }
+
+    /**
+     * OfflineDynamicConnectivity - class constructor. The graph starts with no edges
+     *
+     * @param numNodes number of vertices (0 to numNodes - 1)
+     */
+    public OfflineDynamicConnectivity(int numNodes) {
+        this.numNodes = numNodes;
+        type = new int[16];
+        us = new int[16];
+        vs = new int[16];
+    }
+
+    // add the undirected edge u - v. The same edge can be added more than once (each copy has to be removed separately)
+    public void addEdge(int u, int v) {
+        addEvent(ADD, u, v);
+    }
+
+    // remove one copy of the edge u - v (which has to be in the graph at this point, or solve() throws IllegalArgumentException)
+    public void removeEdge(int u, int v) {
+        addEvent(REMOVE, u, v);
+    }
+
+    /**
+     * query - ask whether u and v are connected at this point in the events
+     *
+     * @param u a vertex
+     * @param v a vertex
+     * @return the number of this query: its answer is at this index in the array solve() returns
+     */
+    public int query(int u, int v) {
+        addEvent(QUERY, u, v);
+        return numQueries++;
+    }
+
+    private void addEvent(int kind, int u, int v) {
+        if (numEvents == type.length) {
+            type = Arrays.copyOf(type, numEvents * 2);
+            us = Arrays.copyOf(us, numEvents * 2);
+            vs = Arrays.copyOf(vs, numEvents * 2);
+        }
+        type[numEvents] = kind;
+        us[numEvents] = u;
+        vs[numEvents] = v;
+        numEvents++;
+    }
+
+    /**
+     * solve - answer all the queries asked so far
+     *
+     * @return boolean[] with the answer to query q at index q
+     * @throws IllegalArgumentException if an edge is removed that isn't in the graph at that point
+     */
+    public boolean[] solve() {
+        answers = new boolean[numQueries];
+        if (numQueries == 0) {
+            return answers;
+        }
+
+        // 1. Work out the interval [from, to) of queries each added edge is present for. The open copies of each edge are
+        //    chained together (newest first) so a remove can find one
+        int[] from = new int[numEvents], to = new int[numEvents]; // indexed by the event number of the add
+        int[] nextOpen = new int[numEvents];
+        Map<Long, Integer> open = new HashMap<Long, Integer>(); // edge (smaller vertex << 32 | larger vertex) -> newest open add
+        queryU = new int[numQueries];
+        queryV = new int[numQueries];
+        int query = 0;
+        for (int e = 0; e < numEvents; e++) {
+            if (type[e] == QUERY) {
+                queryU[query] = us[e];
+                queryV[query] = vs[e];
+                query++;
+                continue;
+            }
+            long key = ((long) Math.min(us[e], vs[e]) << 32) | Math.max(us[e], vs[e]);
+            Integer newest = open.get(key);
+            if (type[e] == ADD) {
+                from[e] = query;
+                to[e] = -1;
+                nextOpen[e] = newest == null ? -1 : newest;
+                open.put(key, e);
+            } else {
+                if (newest == null) {
+                    throw new IllegalArgumentException("Edge " + us[e] + " - " + vs[e] + " is removed at event " + e + " but is not in the graph");
+                }
+                to[newest] = query;
+                if (nextOpen[newest] < 0) {
+                    open.remove(key);
+                } else {
+                    open.put(key, nextOpen[newest]);
+                }
+            }
+        }
+
+        // 2. Put the intervals in the segment tree: count per node, prefix sum, then fill
+        leaves = Integer.highestOneBit(numQueries);
+        if (leaves < numQueries) leaves <<= 1;
+        nodeOffsets = new int[2 * leaves + 1];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int e = 0; e < numEvents; e++) {
+                if (type[e] != ADD) continue;
+                int end = to[e] < 0 ? numQueries : to[e]; // never removed: present until the end
+                int left = from[e] + leaves, right = end + leaves; // the usual bottom up walk over [left, right)
+                while (left < right) {
+                    if ((left & 1) == 1) store(pass, left++, e);
+                    if ((right & 1) == 1) store(pass, --right, e);
+                    left >>>= 1;
+                    right >>>= 1;
+                }
+            }
+            if (pass == 0) {
+                for (int i = 1; i <= 2 * leaves; i++) {
+                    nodeOffsets[i] += nodeOffsets[i - 1]; // nodeOffsets[i + 1] held the count for node i
+                }
+                nodeEdgesU = new int[nodeOffsets[2 * leaves]];
+                nodeEdgesV = new int[nodeOffsets[2 * leaves]];
+            }
+        }
+        for (int i = 2 * leaves; i > 0; i--) {
+            nodeOffsets[i] = nodeOffsets[i - 1]; // the fill moved each offset up to the end of its node, move them back
+        }
+        nodeOffsets[0] = 0;
+
+        // 3. Walk the tree
+        sets = new RollbackUnionFind(numNodes);
+        visit(1, 0, leaves);
+        sets = null;
+        nodeEdgesU = nodeEdgesV = queryU = queryV = null;
+        return answers;
+    }
+
+    // pass 0 counts the edges of each node (in nodeOffsets[node + 1]), pass 1 puts edge e in its place
+    private void store(int pass, int node, int e) {
+        if (pass == 0) {
+            nodeOffsets[node + 1]++;
+        } else {
+            int index = nodeOffsets[node]++;
+            nodeEdgesU[index] = us[e];
+            nodeEdgesV[index] = vs[e];
+        }
+    }
+
+    // union the edges of node (which covers queries [start, end)), answer the queries below it, and undo the unions again.
+    // The recursion is only log2(Q) deep
+    private void visit(int node, int start, int end) {
+        if (start >= numQueries) {
+            return; // padding past the last query
+        }
+        int mark = sets.getHistorySize();
+        for (int i = nodeOffsets[node]; i < nodeOffsets[node + 1]; i++) {
+            sets.union(nodeEdgesU[i], nodeEdgesV[i]);
+        }
+        if (end - start == 1) {
+            answers[start] = sets.connected(queryU[start], queryV[start]);
+        } else {
+            int middle = (start + end) >>> 1;
+            visit(2 * node, start, middle);
+            visit(2 * node + 1, middle, end);
+        }
+        sets.rollback(mark);
+    }
+}
@@ -0,0 +1,276 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * A topological order (see TopologicalSort.java) of a DAG that edges keep getting added to, kept up to date after every
+ * insert instead of sorting again from scratch. This is the Pearce-Kelly algorithm.
+ *
+ * We keep the order as two arrays that are each other's inverse: ord[v] is the position of v, and vertexAt[p] is the vertex
+ * at position p. The edges are kept in a DynamicGraph (with its reverse index), since edges get added all the time.
+ *
+ * Adding the edge u -> v:
+ *
+ * - if ord[u] < ord[v] the order is still fine, nothing to do. This is the usual case
+ * - otherwise only the vertices with positions between ord[v] and ord[u] (the "affected region") can be in the wrong place.
+ *   We search forward from v over vertices in that region (deltaF, everything v reaches that is before u), and backward
+ *   from u (deltaB, everything that reaches u that is after v). If the forward search gets to u, the new edge would close
+ *   a cycle, so it is refused and nothing changes
+ * - otherwise deltaB has to come before deltaF. We take the positions they are in now, sorted, and give them out again:
+ *   first to the vertices of deltaB (keeping their order among themselves), then to those of deltaF. Every other vertex
+ *   stays where it is
+ *
+ * The cost of an insert is proportional to the affected region (the vertices searched and their edges), not the size of
+ * the graph. The searches use their own stacks and a "visited in search number" stamp per vertex, so nothing is cleared
+ * between inserts.
+ */
+
+public class OnlineTopologicalOrder {
+    private DynamicGraph dg;
+    private int[] ord; // position of each vertex
+    private int[] vertexAt; // vertex at each position
+    private int[] visited; // search number in which each vertex was last visited
+    private int stamp;
+    private int[] stack;
+    private int[] deltaF, deltaB;
+    private int numF, numB;
+
+    public static void main(String args[]) {
+        int[][] edges = {{0, 6}, {1, 2}, {1, 4}, {1, 6}, {3, 0}, {3, 4}, {5, 1}, {7, 0}, {7, 1}}; // same graph as TopologicalSort.java
+        OnlineTopologicalOrder order = new OnlineTopologicalOrder(new Graph(edges, 8, true, false));
+        Pr.x("Start: " + Arrays.toString(order.getOrder()));
+        order.addEdge(2, 3); // 2 and everything before it (5, 7, 1) has to move in front of 3 and 0
+        Pr.x("After adding 2 -> 3: " + Arrays.toString(order.getOrder()));
+        Pr.x("Adding 0 -> 7 accepted: " + order.addEdge(0, 7)); // 7 -> 0 is already there
+        Pr.x("Adding 4 -> 5 accepted: " + order.addEdge(4, 5)); // 5 -> 1 -> 4
+        Pr.x("Order: " + Arrays.toString(order.getOrder()));
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java OnlineTopologicalOrder benchmark
+        }
+    }
+
+    // 30000 edge insertions against one sort from scratch, too slow to run with the demo
+    private static void benchmark() {
+        // Timing: 10k vertices with a hidden order, edges between vertices at most 50 apart in it (added in random order),
+        // and every tenth edge turned around (which makes a cycle if the graph already has a path the other way)
+        Random random = new Random(1);
+        int n = 10000;
+        int[] hidden = new int[n];
+        for (int v = 0; v < n; v++) {
+            int other = random.nextInt(v + 1);
+            hidden[v] = hidden[other];
+            hidden[other] = v;
+        }
+        OnlineTopologicalOrder order = new OnlineTopologicalOrder(new Graph(new int[0][], n, true, false));
+        DynamicGraph check = new DynamicGraph(n, true, false, false);
+        int added = 0, refused = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < 30000; i++) {
+            int a = random.nextInt(n - 1);
+            int b = Math.min(n - 1, a + 1 + random.nextInt(50));
+            int u = hidden[a], v = hidden[b];
+            if (i % 10 == 0) {
+                u = hidden[b];
+                v = hidden[a];
+            }
+            if (order.addEdge(u, v)) {
+                check.addEdge(u, v, -1);
+                added++;
+            } else {
+                refused++;
+            }
+        }
+        long online = System.nanoTime() - start;
+        Pr.x(added + " edges added and " + refused + " refused in " + online / 1000000 + "ms (" + online / 30000 / 1000 + "us each)");
+
+        start = System.nanoTime();
+        TopologicalSort.topologicalOrder(check.toGraph());
+        Pr.x("Sorting from scratch once: " + (System.nanoTime() - start) / 1000000 + "ms");
+
+        int[] position = new int[n];
+        int[] current = order.getOrder();
+        for (int p = 0; p < n; p++) {
+            position[current[p]] = p;
+        }
+        boolean valid = true;
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < check.getDegree(u); i++) {
+                valid &= position[u] < position[check.getTarget(u, i)];
+            }
+        }
+        Pr.x("Order valid: " + valid);
+    }
+
+    /**
+     * OnlineTopologicalOrder - class constructor. Copies the edges of g and sorts it once with Kahn's algorithm
+     *
+     * @param g directed acyclic graph to start from (not changed)
+     * @throws IllegalArgumentException if g has a cycle
+     */
+    public OnlineTopologicalOrder(Graph g) {
+        int n = g.getNumNodes();
+        vertexAt = TopologicalSort.topologicalOrder(g);
+        if (vertexAt.length < n) {
+            throw new IllegalArgumentException("Graph has a cycle, so it has no topological order");
+        }
+        dg = new DynamicGraph(g, true);
+        ord = new int[n];
+        for (int p = 0; p < n; p++) {
+            ord[vertexAt[p]] = p;
+        }
+        visited = new int[n];
+        stack = new int[n];
+        deltaF = new int[n];
+        deltaB = new int[n];
+    }
+
+    /**
+     * addEdge - add the edge u -> v and bring the order up to date
+     *
+     * @param u source vertex
+     * @param v destination vertex
+     * @return boolean = false if the edge would make a cycle (it is then not added), true otherwise
+     */
+    public boolean addEdge(int u, int v) {
+        if (u == v) {
+            return false;
+        }
+        int lowerBound = ord[v], upperBound = ord[u];
+        if (lowerBound > upperBound) {
+            dg.addEdge(u, v, -1); // already in order
+            return true;
+        }
+
+        stamp++;
+        if (!searchForward(v, upperBound)) {
+            return false; // v reaches u
+        }
+        searchBackward(u, lowerBound);
+        reorder();
+        dg.addEdge(u, v, -1);
+        return true;
+    }
+
+    /**
+     * removeEdge - remove the edge u -> v. An order stays valid when edges go, so nothing else changes
+     *
+     * @param u source vertex
+     * @param v destination vertex
+     * @return true if an edge was removed, false if there was no such edge
+     */
+    public boolean removeEdge(int u, int v) {
+        return dg.removeEdge(u, v);
+    }
+
+    /**
+     * addVertex - add a new vertex with no edges. It goes at the end of the order
+     *
+     * @return the number of the new vertex
+     */
+    public int addVertex() {
+        int v = dg.addVertex();
+        if (v == ord.length) {
+            int capacity = Math.max(4, ord.length * 2);
+            ord = Arrays.copyOf(ord, capacity);
+            vertexAt = Arrays.copyOf(vertexAt, capacity);
+            visited = Arrays.copyOf(visited, capacity);
+            stack = Arrays.copyOf(stack, capacity);
+            deltaF = Arrays.copyOf(deltaF, capacity);
+            deltaB = Arrays.copyOf(deltaB, capacity);
+        }
+        ord[v] = v;
+        vertexAt[v] = v;
+        return v;
+    }
+
+    // everything v reaches with positions below upperBound goes into deltaF. Returns false if u (at upperBound) is reached
+    private boolean searchForward(int v, int upperBound) {
+        numF = 0;
+        int top = 0;
+        stack[top++] = v;
+        visited[v] = stamp;
+        while (top > 0) {
+            int x = stack[--top];
+            deltaF[numF++] = x;
+            for (int i = 0; i < dg.getDegree(x); i++) {
+                int w = dg.getTarget(x, i);
+                if (ord[w] == upperBound) {
+                    return false;
+                }
+                if (visited[w] != stamp && ord[w] < upperBound) {
+                    visited[w] = stamp;
+                    stack[top++] = w;
+                }
+            }
+        }
+        return true;
+    }
+
+    // everything that reaches u with positions above lowerBound goes into deltaB
+    private void searchBackward(int u, int lowerBound) {
+        numB = 0;
+        int top = 0;
+        stack[top++] = u;
+        visited[u] = stamp;
+        while (top > 0) {
+            int x = stack[--top];
+            deltaB[numB++] = x;
+            for (int i = 0; i < dg.getInDegree(x); i++) {
+                int w = dg.getSource(x, i);
+                if (visited[w] != stamp && ord[w] > lowerBound) {
+                    visited[w] = stamp;
+                    stack[top++] = w;
+                }
+            }
+        }
+    }
+
+    // give the positions of deltaB and deltaF out again, deltaB first, each keeping its own order
+    private void reorder() {
+        sortByPosition(deltaB, numB);
+        sortByPosition(deltaF, numF);
+        int[] positions = new int[numB + numF];
+        for (int i = 0; i < numB; i++) {
+            positions[i] = ord[deltaB[i]];
+        }
+        for (int i = 0; i < numF; i++) {
+            positions[numB + i] = ord[deltaF[i]];
+        }
+        Arrays.sort(positions);
+        for (int i = 0; i < numB; i++) {
+            place(deltaB[i], positions[i]);
+        }
+        for (int i = 0; i < numF; i++) {
+            place(deltaF[i], positions[numB + i]);
+        }
+    }
+
+    private void place(int v, int position) {
+        ord[v] = position;
+        vertexAt[position] = v;
+    }
+
+    // sort the first count vertices of vertices by their current position (packed as position << 32 | vertex so it is one primitive sort)
+    private void sortByPosition(int[] vertices, int count) {
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) {
+            packed[i] = ((long) ord[vertices[i]] << 32) | vertices[i];
+        }
+        Arrays.sort(packed);
+        for (int i = 0; i < count; i++) {
+            vertices[i] = (int) packed[i];
+        }
+    }
+
+    // the vertices in topological order
+    public int[] getOrder() {
+        return Arrays.copyOf(vertexAt, dg.getNumNodes());
+    }
+
+    // position of v in the order
+    public int getPosition(int v) {
+        return ord[v];
+    }
+}
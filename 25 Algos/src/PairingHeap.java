@@ -0,0 +1,143 @@
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * A pairing heap of vertices (see VertexHeap.java). A pairing heap is a tree where every node's key is no bigger than the
+ * keys of its children, but unlike a binary heap a node can have any number of children. Two heaps are merged ("linked")
+ * by making the root with the bigger key the first child of the other root, which is O(1). So:
+ *
+ * - insert: link the new vertex with the root. O(1)
+ * - decrease-key: cut the vertex (and everything under it) out of the tree and link it with the root. O(1)
+ * - extractMin: remove the root and merge its children. The children are linked in pairs from left to right, and then the
+ *   pairs are linked together from right to left (the "two-pass" method). O(log V) amortised.
+ *
+ * The tree is stored in arrays indexed by vertex, so no node objects get allocated:
+ * - child[v] which is the first child of v (-1 if none)
+ * - next[v] which is the next sibling of v (-1 if none)
+ * - prev[v] which is the previous sibling of v, or the parent of v if v is a first child (-1 for the root)
+ */
+
+public class PairingHeap implements VertexHeap {
+    private int[] child;
+    private int[] next;
+    private int[] prev;
+    private int[] key;
+    private boolean[] inHeap;
+    private int[] scratch; // used when merging the children of the root, and when clearing
+    private int root = -1;
+    private int size;
+
+    public PairingHeap(int capacity) {
+        child = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        key = new int[capacity];
+        inHeap = new boolean[capacity];
+        scratch = new int[capacity];
+    }
+
+    public void insertOrDecrease(int vertex, int newKey) {
+        if (!inHeap[vertex]) {
+            key[vertex] = newKey;
+            child[vertex] = -1;
+            next[vertex] = -1;
+            prev[vertex] = -1;
+            inHeap[vertex] = true;
+            size++;
+            root = root == -1 ? vertex : link(root, vertex);
+            return;
+        }
+        if (newKey >= key[vertex]) return; // not a decrease
+
+        key[vertex] = newKey;
+        if (vertex == root) return;
+
+        // cut vertex out of its list of siblings and link it (with its subtree) with the root
+        if (child[prev[vertex]] == vertex) {
+            child[prev[vertex]] = next[vertex]; // vertex was the first child of prev[vertex]
+        } else {
+            next[prev[vertex]] = next[vertex];
+        }
+        if (next[vertex] != -1) {
+            prev[next[vertex]] = prev[vertex];
+        }
+        next[vertex] = -1;
+        prev[vertex] = -1;
+        root = link(root, vertex);
+    }
+
+    public int extractMin() {
+        int min = root;
+        root = mergePairs(child[min]);
+        inHeap[min] = false;
+        size--;
+        return min;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int vertex) {
+        return inHeap[vertex];
+    }
+
+    public void clear() {
+        // walk the whole tree and take every vertex out
+        int top = 0;
+        if (root != -1) scratch[top++] = root;
+        while (top > 0) {
+            int vertex = scratch[--top];
+            inHeap[vertex] = false;
+            if (child[vertex] != -1) scratch[top++] = child[vertex];
+            if (next[vertex] != -1) scratch[top++] = next[vertex];
+        }
+        root = -1;
+        size = 0;
+    }
+
+    // link two roots. The one with the bigger key becomes the first child of the other. Returns the new root
+    private int link(int a, int b) {
+        if (key[b] < key[a]) {
+            int temp = a;
+            a = b;
+            b = temp;
+        }
+        next[b] = child[a];
+        if (child[a] != -1) {
+            prev[child[a]] = b;
+        }
+        prev[b] = a;
+        child[a] = b;
+        next[a] = -1;
+        prev[a] = -1;
+        return a;
+    }
+
+    // two-pass merge of a list of siblings starting at first. Returns the new root (-1 if the list is empty)
+    private int mergePairs(int first) {
+        int count = 0;
+        int a = first;
+
+        // first pass: link pairs from left to right
+        while (a != -1) {
+            int b = next[a];
+            if (b == -1) {
+                next[a] = -1;
+                prev[a] = -1;
+                scratch[count++] = a;
+                break;
+            }
+            int rest = next[b];
+            scratch[count++] = link(a, b);
+            a = rest;
+        }
+
+        // second pass: link the pairs together from right to left
+        int merged = count == 0 ? -1 : scratch[count - 1];
+        for (int i = count - 2; i >= 0; i--) {
+            merged = link(scratch[i], merged);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,172 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.IntStream;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * Bellman-Ford with each pass over the arcs split between the threads of a ForkJoinPool (see BellmanFord.java for the
+ * algorithm itself).
+ *
+ * The arcs are the CSR arrays of the graph (primitive target and weight arrays, see CSRGraph.java), cut into chunks of
+ * roughly the same number of arcs. A chunk is a range of source vertices, so a thread just walks its part of the arrays
+ * from start to end. Every pass, every chunk is relaxed in parallel.
+ *
+ * As in DeltaStepping.java, the distance and previous vertex of each vertex are packed into one long in an AtomicLongArray
+ * (distance in the top 32 bits, previous vertex in the bottom 32), so dist and prev always change together in a single
+ * compare-and-set. Distances can be negative here, which is fine as the distance is shifted back out with a signed shift.
+ * Only a strictly shorter distance replaces what a vertex has. When several paths have the same length, which one prev
+ * ends up on depends on how the threads were scheduled, but dist is always the same.
+ *
+ * A thread may see distances other threads lowered earlier in the same pass. That only makes things converge sooner, so
+ * after k passes every vertex still has a distance at least as good as the best path with k edges. Any thread that lowers a
+ * distance sets the "changed" flag. We stop after the first pass where nothing changed. If there is still a change in pass
+ * n, there has to be a negative cycle.
+ */
+
+public class ParallelBellmanFord {
+    private static final int CHUNKS_PER_THREAD = 4; // a few chunks per thread so a slow chunk doesn't hold everyone up
+
+    public static void main(String args[]) {
+        int[][] edges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, 4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+        int numVertices = 5;
+        int[] dist = new int[numVertices];
+        int[] prev = new int[numVertices];
+        if (calculateShortestPaths(dist, prev, new Graph(edges, numVertices, true, true), 0, ForkJoinPool.commonPool())) {
+            Pr.x("Distances: " + Arrays.toString(dist));
+            Pr.x("Previous vertices: " + Arrays.toString(prev));
+        }
+
+        int[][] negativeCycleEdges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, -4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+        if (!calculateShortestPaths(dist, prev, new Graph(negativeCycleEdges, numVertices, true, true), 0, ForkJoinPool.commonPool())) {
+            Pr.x("Graph contains a negative cycle!");
+        }
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java ParallelBellmanFord benchmark
+        }
+    }
+
+    // the 10M edge comparison with BellmanFord, far too slow for the demo
+    private static void benchmark() {
+        // Timing against the sequential version on 1M vertices and 10M edges, with negative weights but no negative cycles
+        // (weights are w + p[u] - p[v] with w >= 0, see SPFA.java). Built straight into CSR form to save memory
+        Random random = new Random(1);
+        int n = 1000000, m = 10000000;
+        int[] p = random.ints(n, 0, 1000).toArray();
+        int[] sources = new int[m], dests = new int[m], weights = new int[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = random.nextInt(n);
+            dests[i] = random.nextInt(n);
+            weights[i] = random.nextInt(100) + p[sources[i]] - p[dests[i]];
+        }
+        Graph wg = new Graph(new CSRGraph(n, sources, dests, weights, m, true, true));
+        sources = dests = weights = null;
+
+        int[] dist = new int[n];
+        int[] prev = new int[n];
+        int[] check = new int[n];
+        long start = System.nanoTime();
+        BellmanFord.calculateShortestPaths(check, prev, wg, 0);
+        Pr.x("Sequential: " + (System.nanoTime() - start) / 1000000 + "ms");
+        start = System.nanoTime();
+        calculateShortestPaths(dist, prev, wg, 0, ForkJoinPool.commonPool());
+        Pr.x("Parallel on " + ForkJoinPool.commonPool().getParallelism() + " threads: " + (System.nanoTime() - start) / 1000000 + "ms, same distances: " + Arrays.equals(dist, check));
+    }
+
+    /**
+     * calculateShortestPaths - calculates the shortest path from the startVertex to all other vertices in the graph
+     * using Bellman-Ford with the arcs of each pass relaxed in parallel on pool
+     *
+     * @param dist filled with the distances from startVertex (Integer.MAX_VALUE if unreachable)
+     * @param prev filled with the previous vertex on the shortest path to each vertex (-1 for startVertex and unreachable vertices)
+     * @param wg weighted graph object
+     * @param startVertex the vertex we begin the search from
+     * @param pool the threads to relax arcs on
+     * @return boolean = false if the graph contains a negative cycle reachable from startVertex (dist and prev are then not
+     * meaningful), true otherwise
+     */
+    public static boolean calculateShortestPaths(int[] dist, int[] prev, Graph wg, int startVertex, ForkJoinPool pool) {
+        CSRGraph csr = wg.getCSR();
+        int n = csr.getNumNodes();
+        int[] chunkStarts = chunkBoundaries(csr, pool.getParallelism() * CHUNKS_PER_THREAD);
+        int numChunks = chunkStarts.length - 1;
+
+        AtomicLongArray best = new AtomicLongArray(n);
+        for (int v = 0; v < n; v++) {
+            best.set(v, Long.MAX_VALUE); // dist = Integer.MAX_VALUE, prev = -1
+        }
+        best.set(startVertex, 0xffffffffL); // dist = 0, prev = -1
+        AtomicBoolean changed = new AtomicBoolean();
+
+        boolean noNegativeCycles = false;
+        for (int pass = 0; pass < n; pass++) { // n - 1 passes are always enough, so a change in pass n means a negative cycle
+            changed.set(false);
+            pool.submit(() -> IntStream.range(0, numChunks).parallel().forEach(chunk -> {
+                if (relaxChunk(csr, best, chunkStarts[chunk], chunkStarts[chunk + 1])) {
+                    changed.set(true);
+                }
+            })).join();
+            if (!changed.get()) {
+                noNegativeCycles = true;
+                break;
+            }
+        }
+
+        for (int v = 0; v < n; v++) {
+            long packed = best.get(v);
+            dist[v] = (int) (packed >> 32);
+            prev[v] = (int) packed;
+        }
+        return noNegativeCycles;
+    }
+
+    // relax the arcs of the source vertices [from, to). Returns true if any distance went down
+    private static boolean relaxChunk(CSRGraph csr, AtomicLongArray best, int from, int to) {
+        boolean changed = false;
+        for (int u = from; u < to; u++) {
+            long distU = best.get(u) >> 32;
+            if (distU == Integer.MAX_VALUE) continue; // not reached yet
+            for (int arc = csr.getOffset(u); arc < csr.getOffset(u + 1); arc++) {
+                long newDist = distU + csr.getWeight(arc);
+                if (newDist >= Integer.MAX_VALUE) continue;
+                int v = csr.getTarget(arc);
+                long candidate = (newDist << 32) | (u & 0xffffffffL);
+                long current = best.get(v);
+                while (newDist < (current >> 32)) {
+                    if (best.compareAndSet(v, current, candidate)) {
+                        changed = true;
+                        break;
+                    }
+                    current = best.get(v); // someone else changed it in the meantime, try again
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * chunkBoundaries - cut the vertices into ranges with about the same number of arcs each
+     *
+     * @param csr the graph
+     * @param numChunks how many ranges we would like
+     * @return int[] where range i is the vertices [starts[i], starts[i + 1])
+     */
+    private static int[] chunkBoundaries(CSRGraph csr, int numChunks) {
+        int n = csr.getNumNodes();
+        long arcsPerChunk = Math.max(1, ((long) csr.getNumArcs() + numChunks - 1) / numChunks);
+        List<Integer> starts = new ArrayList<Integer>();
+        starts.add(0);
+        long nextBoundary = arcsPerChunk;
+        for (int v = 0; v < n; v++) {
+            if (csr.getOffset(v) >= nextBoundary) {
+                starts.add(v);
+                nextBoundary = csr.getOffset(v) + arcsPerChunk;
+            }
+        }
+        starts.add(n);
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
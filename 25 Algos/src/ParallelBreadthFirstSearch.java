@@ -0,0 +1,261 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.IntStream;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * Breadth first search (see BreadthFirstSearch.java) for big graphs: level by level, with each level spread over the
+ * threads of a ForkJoinPool, and switching direction depending on how big the frontier is ("direction optimizing" BFS,
+ * Beamer et al.).
+ *
+ * The frontier (the vertices found in the last level), the next frontier and the visited set are bitmaps: one bit per
+ * vertex, 64 vertices to a long. Checking or setting a vertex is a shift and a mask, n vertices take n / 8 bytes, and a
+ * thread can go through its part of a bitmap a whole word (64 vertices) at a time.
+ *
+ * There are two ways of doing one level:
+ *
+ * - Top down: every vertex in the frontier looks at its neighbours and claims the ones not visited yet. Several threads can
+ *   find the same vertex at the same time, so claiming is a compare-and-set on the word of the visited bitmap, and only the
+ *   thread that sets the bit gets to write parent/level. Work is the number of arcs out of the frontier.
+ * - Bottom up: every vertex not visited yet looks at its (incoming) neighbours until it finds one in the frontier, and then
+ *   stops. Each thread owns a range of vertices, so nothing needs to be atomic. Work is at most the number of arcs into
+ *   unvisited vertices, and usually much less because of stopping at the first parent found.
+ *
+ * In the middle levels of a low diameter graph (social networks, web graphs, random graphs) the frontier is a big part of
+ * the graph, and top down wastes most of its time on arcs into vertices that are already visited. Bottom up is much cheaper
+ * there. At the start and the end the frontier is small and top down is cheaper. The switch uses Beamer's rules:
+ *
+ * - go bottom up when the arcs out of the frontier (mf) are more than 1 / ALPHA of the arcs out of unvisited vertices (mu)
+ * - go back to top down when the frontier has fewer than n / BETA vertices
+ *
+ * The result is the BFS tree as two int arrays: parent[v] (the vertex v was found from, startNode for startNode itself) and
+ * level[v] (the number of edges from startNode), both -1 for vertices that can't be reached. Levels are always the same.
+ * Which of several parents at the same level a vertex gets depends on the threads.
+ *
+ * For directed graphs bottom up needs the arcs into each vertex, so the reverse graph is built the first time a level goes
+ * bottom up (for undirected graphs the graph is its own reverse, see CSRGraph.reverse()).
+ */
+
+public class ParallelBreadthFirstSearch {
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    public static void main(String args[]) {
+        int [][] edges = {{1, 2}, {1, 3}, {1, 4}, {2, 5}, {2, 6}, {5, 9}, {5, 10}, {4, 7}, {4, 8}, {7, 11}, {7, 12}}; // same graph as BreadthFirstSearch.java
+        Graph g = new Graph(edges, 15, false, false); // create new unweighted, undirected Graph (false, false)
+        int[] parent = new int[15];
+        int[] level = new int[15];
+        breadthFirstSearch(parent, level, g, 1, ForkJoinPool.commonPool());
+        Pr.x("Parents: " + Arrays.toString(parent));
+        Pr.x("Levels: " + Arrays.toString(level));
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java ParallelBreadthFirstSearch benchmark
+        }
+    }
+
+    // the 16M edge comparison with a queue BFS, which needs most of the heap
+    private static void benchmark() {
+        // Timing against a plain queue based BFS (int arrays, one thread) on a random graph with 2M vertices and 16M edges
+        Random random = new Random(1);
+        int n = 2000000, m = 16000000;
+        int[] sources = new int[m], dests = new int[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = random.nextInt(n);
+            dests[i] = random.nextInt(n);
+        }
+        Graph g = new Graph(new CSRGraph(n, sources, dests, new int[m], m, false, false));
+        sources = dests = null;
+
+        long start = System.nanoTime();
+        int[] check = queueLevels(g.getCSR(), 0);
+        Pr.x("Queue BFS: " + (System.nanoTime() - start) / 1000000 + "ms");
+
+        int[] parent = new int[n];
+        int[] level = new int[n];
+        start = System.nanoTime();
+        breadthFirstSearch(parent, level, g, 0, ForkJoinPool.commonPool());
+        Pr.x("Direction optimizing BFS on " + ForkJoinPool.commonPool().getParallelism() + " threads: " + (System.nanoTime() - start) / 1000000
+                + "ms, same levels: " + Arrays.equals(level, check));
+    }
+
+    // levels from the plain one thread BFS with an int array as the queue, for the timing in main
+    private static int[] queueLevels(CSRGraph csr, int startNode) {
+        int[] level = new int[csr.getNumNodes()];
+        Arrays.fill(level, -1);
+        int[] queue = new int[csr.getNumNodes()];
+        int head = 0, tail = 0;
+        level[startNode] = 0;
+        queue[tail++] = startNode;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int arc = csr.getOffset(u); arc < csr.getOffset(u + 1); arc++) {
+                int v = csr.getTarget(arc);
+                if (level[v] == -1) {
+                    level[v] = level[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return level;
+    }
+
+    /**
+     * breadthFirstSearch - direction optimizing, level synchronous BFS from startNode with each level done in parallel on pool
+     *
+     * @param parent filled with the vertex each vertex was found from (startNode for startNode, -1 if not reachable)
+     * @param level filled with the number of edges from startNode to each vertex (-1 if not reachable)
+     * @param g graph (neighbours are read from its CSR arrays)
+     * @param startNode the node we are beginning the search from
+     * @param pool the threads to do each level on
+     */
+    public static void breadthFirstSearch(int[] parent, int[] level, Graph g, int startNode, ForkJoinPool pool) {
+        CSRGraph csr = g.getCSR();
+        CSRGraph reverse = csr.isDirected() ? null : csr; // built when first needed
+        int n = csr.getNumNodes();
+        int numWords = (n + 63) >>> 6;
+        AtomicLongArray visited = new AtomicLongArray(numWords);
+        AtomicLongArray frontier = new AtomicLongArray(numWords);
+        AtomicLongArray next = new AtomicLongArray(numWords);
+
+        // the vertices are split into chunks of whole words, so a chunk owns its words of every bitmap
+        int numChunks = Math.min(numWords, pool.getParallelism() * CHUNKS_PER_THREAD);
+        int wordsPerChunk = numChunks == 0 ? 0 : (numWords + numChunks - 1) / numChunks;
+        long[] chunkVertices = new long[numChunks]; // vertices and out arcs each chunk added to the next frontier
+        long[] chunkArcs = new long[numChunks];
+
+        Arrays.fill(parent, -1);
+        Arrays.fill(level, -1);
+        parent[startNode] = startNode;
+        level[startNode] = 0;
+        setBit(visited, startNode);
+        setBit(frontier, startNode);
+
+        long frontierVertices = 1;
+        long frontierArcs = csr.getDegree(startNode); // mf
+        long unvisitedArcs = csr.getNumArcs() - frontierArcs; // mu
+        boolean bottomUp = false;
+
+        for (int depth = 1; frontierVertices > 0; depth++) {
+            if (!bottomUp && frontierArcs > unvisitedArcs / ALPHA) {
+                bottomUp = true;
+                if (reverse == null) reverse = csr.reverse();
+            } else if (bottomUp && frontierVertices < n / BETA) {
+                bottomUp = false;
+            }
+
+            final int d = depth;
+            final boolean up = bottomUp;
+            final CSRGraph in = reverse;
+            final AtomicLongArray current = frontier, found = next;
+            pool.submit(() -> IntStream.range(0, numChunks).parallel().forEach(chunk -> {
+                int fromWord = chunk * wordsPerChunk, toWord = Math.min(numWords, fromWord + wordsPerChunk);
+                if (up) {
+                    bottomUpStep(in, csr, current, found, visited, parent, level, d, fromWord, toWord, chunk, chunkVertices, chunkArcs);
+                } else {
+                    topDownStep(csr, current, found, visited, parent, level, d, fromWord, toWord, chunk, chunkVertices, chunkArcs);
+                }
+            })).join();
+
+            frontierVertices = 0;
+            frontierArcs = 0;
+            for (int chunk = 0; chunk < numChunks; chunk++) {
+                frontierVertices += chunkVertices[chunk];
+                frontierArcs += chunkArcs[chunk];
+            }
+            unvisitedArcs -= frontierArcs;
+
+            // the old frontier becomes the (cleared) next frontier for the level after
+            frontier = next;
+            next = current;
+            final AtomicLongArray toClear = next;
+            pool.submit(() -> IntStream.range(0, numWords).parallel().forEach(w -> toClear.set(w, 0))).join();
+        }
+    }
+
+    // top down: go through the frontier vertices in words [fromWord, toWord) and claim their unvisited neighbours
+    private static void topDownStep(CSRGraph csr, AtomicLongArray frontier, AtomicLongArray next, AtomicLongArray visited, int[] parent,
+            int[] level, int depth, int fromWord, int toWord, int chunk, long[] chunkVertices, long[] chunkArcs) {
+        long vertices = 0, arcs = 0;
+        for (int w = fromWord; w < toWord; w++) {
+            long word = frontier.get(w);
+            while (word != 0) {
+                int u = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1; // clear the lowest set bit
+                for (int arc = csr.getOffset(u); arc < csr.getOffset(u + 1); arc++) {
+                    int v = csr.getTarget(arc);
+                    if (testBit(visited, v) || !claimBit(visited, v)) continue; // cheap read first, most neighbours are already visited
+                    parent[v] = u;
+                    level[v] = depth;
+                    setBit(next, v);
+                    vertices++;
+                    arcs += csr.getDegree(v);
+                }
+            }
+        }
+        chunkVertices[chunk] = vertices;
+        chunkArcs[chunk] = arcs;
+    }
+
+    // bottom up: every unvisited vertex in words [fromWord, toWord) looks for a parent in the frontier. The chunk owns these words
+    private static void bottomUpStep(CSRGraph reverse, CSRGraph csr, AtomicLongArray frontier, AtomicLongArray next, AtomicLongArray visited,
+            int[] parent, int[] level, int depth, int fromWord, int toWord, int chunk, long[] chunkVertices, long[] chunkArcs) {
+        int n = csr.getNumNodes();
+        long vertices = 0, arcs = 0;
+        for (int w = fromWord; w < toWord; w++) {
+            long unvisited = ~visited.get(w);
+            if (w == (n - 1) >>> 6 && (n & 63) != 0) {
+                unvisited &= (1L << (n & 63)) - 1; // past the last vertex
+            }
+            long newlyFound = 0;
+            while (unvisited != 0) {
+                int bit = Long.numberOfTrailingZeros(unvisited);
+                unvisited &= unvisited - 1;
+                int v = (w << 6) + bit;
+                for (int arc = reverse.getOffset(v); arc < reverse.getOffset(v + 1); arc++) {
+                    int u = reverse.getTarget(arc);
+                    if (testBit(frontier, u)) {
+                        parent[v] = u;
+                        level[v] = depth;
+                        newlyFound |= 1L << bit;
+                        vertices++;
+                        arcs += csr.getDegree(v);
+                        break;
+                    }
+                }
+            }
+            if (newlyFound != 0) {
+                visited.set(w, visited.get(w) | newlyFound); // only this chunk writes word w in this step
+                next.set(w, newlyFound);
+            }
+        }
+        chunkVertices[chunk] = vertices;
+        chunkArcs[chunk] = arcs;
+    }
+
+    private static boolean testBit(AtomicLongArray bits, int v) {
+        return (bits.get(v >>> 6) & (1L << v)) != 0; // shifting a long by v only uses the low 6 bits of v
+    }
+
+    private static void setBit(AtomicLongArray bits, int v) {
+        claimBit(bits, v); // other threads may be setting other bits of the same word
+    }
+
+    // set the bit of v if it isn't set yet. Returns true if this call set it (so this thread got v)
+    private static boolean claimBit(AtomicLongArray bits, int v) {
+        int w = v >>> 6;
+        long mask = 1L << v;
+        long word = bits.get(w);
+        while ((word & mask) == 0) {
+            if (bits.compareAndSet(w, word, word | mask)) {
+                return true;
+            }
+            word = bits.get(w);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,232 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * The distance and next hop matrices of FloydWarshall.java (distanceMatrix and vertexConnections), kept in a memory-mapped
+ * file instead of two int[][]s on the heap. Two n x n int matrices for n = 30000 are 7.2GB, which is a lot of heap and a
+ * lot for the garbage collector to scan. Mapped, the OS pages the parts we touch in and out and the heap never sees them.
+ * It also means the result can be computed once and then opened again (read only, straight away, without reading the whole
+ * thing) by any number of processes that just want to look up distances and paths.
+ *
+ * The file is:
+ *
+ *      header      32 bytes: magic, version, n, rest reserved
+ *      distances   n * n ints, row after row: the distance from i to j is at i * n + j (Integer.MAX_VALUE if there is no path)
+ *      next hops   n * n ints, laid out the same (the vertex after i on the path to j, Integer.MAX_VALUE if there is no path)
+ *
+ * Same conventions as FloydWarshall.java, and the same byte order handling as GraphFile.java (written in native order,
+ * worked out from the magic number when opening).
+ *
+ * A single mapping can be at most 2GB, so each matrix is mapped in "segments" of whole rows, each under 2GB. Row i is in
+ * segment i / rowsPerSegment. Rows never cross a segment, so a whole row can be read or written in one bulk copy, which
+ * is what FloydWarshall.calculateShortestPaths(PathMatrixFile) does.
+ */
+
+public class PathMatrixFile {
+    private static final int MAGIC = 0x41505350; // "APSP"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private int n;
+    private int rowsPerSegment;
+    private MappedByteBuffer[] mappings; // kept so that flush() can write them out
+    private IntBuffer[] distances; // segment s holds rows s * rowsPerSegment .. (s + 1) * rowsPerSegment - 1
+    private IntBuffer[] nextHops;
+
+    public static void main(String args[]) {
+        int[][] weightedEdges = {{0, 2, -2}, {2, 3, 2}, {3, 1, -1}, {1, 2, 3}, {1, 0, 4}}; // same graph as FloydWarshall.java
+
+        try {
+            File file = File.createTempFile("paths", ".apsp");
+            file.deleteOnExit();
+            PathMatrixFile matrices = create(file.getPath(), 4);
+            FloydWarshall.initDistanceMatrix(matrices, weightedEdges);
+            FloydWarshall.calculateShortestPaths(matrices);
+            matrices.flush();
+
+            PathMatrixFile opened = open(file.getPath()); // what a query process would do: nothing is read until it's looked at
+            for (int i = 0; i < opened.getNumNodes(); i++) {
+                int[] row = new int[opened.getNumNodes()];
+                opened.readDistanceRow(i, row);
+                Pr.x(Arrays.toString(row));
+            }
+            FloydWarshall.reconstructPath(0, 1, opened);
+
+            if (args.length > 0 && args[0].equals("benchmark")) {
+                benchmark(); // only when asked for: java PathMatrixFile benchmark
+            }
+        } catch (IOException e) {
+            Pr.x("Could not write/read path matrix file: " + e.getMessage());
+        }
+    }
+
+    // an 800 vertex matrix on file, checked against the blocked Floyd-Warshall on the heap. Takes a few seconds
+    private static void benchmark() throws IOException {
+        // A random graph with 800 vertices and 8000 edges
+        int n = 800;
+        Random random = new Random(1);
+        int[][] randomEdges = new int[n * 10][];
+        for (int e = 0; e < randomEdges.length; e++) {
+            randomEdges[e] = new int[] {random.nextInt(n), random.nextInt(n), random.nextInt(1000)};
+        }
+        File bigFile = File.createTempFile("paths", ".apsp");
+        bigFile.deleteOnExit();
+        PathMatrixFile matrices = create(bigFile.getPath(), n);
+        FloydWarshall.initDistanceMatrix(matrices, randomEdges);
+        long start = System.nanoTime();
+        FloydWarshall.calculateShortestPaths(matrices);
+        Pr.x("Floyd-Warshall on the mapped file: " + (System.nanoTime() - start) / 1000000 + "ms");
+
+        int[] dist = new int[n * n];
+        BlockedFloydWarshall.initDistanceMatrix(dist, new int[n * n], n, randomEdges);
+        BlockedFloydWarshall.calculateShortestPaths(dist, null, n, ForkJoinPool.commonPool());
+        boolean same = true;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int d = dist[i * n + j] == BlockedFloydWarshall.INF ? Integer.MAX_VALUE : dist[i * n + j];
+                same &= d == matrices.getDistance(i, j);
+            }
+        }
+        Pr.x("Same distances as blocked Floyd-Warshall: " + same);
+    }
+
+    private PathMatrixFile(int n) {
+        this.n = n;
+        rowsPerSegment = Math.max(1, (Integer.MAX_VALUE / 4) / Math.max(1, n)); // whole rows, under 2GB per segment
+        int numSegments = n == 0 ? 0 : (n + rowsPerSegment - 1) / rowsPerSegment;
+        mappings = new MappedByteBuffer[numSegments * 2];
+        distances = new IntBuffer[numSegments];
+        nextHops = new IntBuffer[numSegments];
+    }
+
+    /**
+     * create - make a new (empty) path matrix file for n vertices and map it read/write. The file is sized up front, but
+     * nothing is written to the matrices: fill them with FloydWarshall.initDistanceMatrix(PathMatrixFile, int[][])
+     *
+     * @param fileName the file to create (overwritten if it exists)
+     * @param n the number of vertices
+     * @return PathMatrixFile backed by the file
+     * @throws IOException if the file can't be created or mapped
+     */
+    public static PathMatrixFile create(String fileName, int n) throws IOException {
+        PathMatrixFile matrices = new PathMatrixFile(n);
+        ByteOrder order = ByteOrder.nativeOrder();
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(order);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n);
+            header.rewind();
+            channel.write(header, 0);
+            matrices.mapSegments(channel, FileChannel.MapMode.READ_WRITE, order); // mapping past the end makes the file that big
+        }
+        return matrices;
+    }
+
+    /**
+     * open - open a path matrix file written earlier, read only. Only the header is read here, the matrices are mapped.
+     *
+     * @param fileName the file to open
+     * @return PathMatrixFile backed by the file (the set and write methods throw ReadOnlyBufferException)
+     * @throws IOException if the file can't be opened or is not a path matrix file
+     */
+    public static PathMatrixFile open(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException(fileName + " is too short to be a path matrix file");
+                }
+            }
+            header.flip();
+
+            ByteOrder order = ByteOrder.BIG_ENDIAN;
+            if (header.order(order).getInt(0) != MAGIC) {
+                order = ByteOrder.LITTLE_ENDIAN;
+                if (header.order(order).getInt(0) != MAGIC) {
+                    throw new IOException(fileName + " is not a path matrix file");
+                }
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException(fileName + " has unsupported path matrix file version " + header.getInt(4));
+            }
+            int n = header.getInt(8);
+            if (channel.size() < HEADER_BYTES + 8L * n * n) {
+                throw new IOException(fileName + " is truncated");
+            }
+
+            PathMatrixFile matrices = new PathMatrixFile(n);
+            matrices.mapSegments(channel, FileChannel.MapMode.READ_ONLY, order);
+            return matrices;
+        }
+    }
+
+    // map every segment of both matrices. The mappings stay valid after the channel is closed
+    private void mapSegments(FileChannel channel, FileChannel.MapMode mode, ByteOrder order) throws IOException {
+        long nextHopsPos = HEADER_BYTES + 4L * n * n;
+        for (int s = 0; s < distances.length; s++) {
+            int rows = Math.min(rowsPerSegment, n - s * rowsPerSegment);
+            long segmentPos = 4L * s * rowsPerSegment * n;
+            long size = 4L * rows * n;
+            mappings[2 * s] = channel.map(mode, HEADER_BYTES + segmentPos, size);
+            mappings[2 * s + 1] = channel.map(mode, nextHopsPos + segmentPos, size);
+            distances[s] = mappings[2 * s].order(order).asIntBuffer();
+            nextHops[s] = mappings[2 * s + 1].order(order).asIntBuffer();
+        }
+    }
+
+    // write any changes out to the file (otherwise the OS does it in its own time)
+    public void flush() {
+        for (MappedByteBuffer mapping: mappings) {
+            if (!mapping.isReadOnly()) mapping.force();
+        }
+    }
+
+    public int getNumNodes() {
+        return n;
+    }
+
+    public int getDistance(int i, int j) {
+        return distances[i / rowsPerSegment].get((i % rowsPerSegment) * n + j);
+    }
+
+    public void setDistance(int i, int j, int distance) {
+        distances[i / rowsPerSegment].put((i % rowsPerSegment) * n + j, distance);
+    }
+
+    public int getNext(int i, int j) {
+        return nextHops[i / rowsPerSegment].get((i % rowsPerSegment) * n + j);
+    }
+
+    public void setNext(int i, int j, int vertex) {
+        nextHops[i / rowsPerSegment].put((i % rowsPerSegment) * n + j, vertex);
+    }
+
+    /**
+     * readDistanceRow - bulk copy the distances from i to every vertex into row
+     *
+     * @param i the row
+     * @param row array of at least n ints to copy into
+     */
+    public void readDistanceRow(int i, int[] row) {
+        distances[i / rowsPerSegment].get((i % rowsPerSegment) * n, row, 0, n);
+    }
+
+    public void writeDistanceRow(int i, int[] row) {
+        distances[i / rowsPerSegment].put((i % rowsPerSegment) * n, row, 0, n);
+    }
+
+    public void readNextRow(int i, int[] row) {
+        nextHops[i / rowsPerSegment].get((i % rowsPerSegment) * n, row, 0, n);
+    }
+
+    public void writeNextRow(int i, int[] row) {
+        nextHops[i / rowsPerSegment].put((i % rowsPerSegment) * n, row, 0, n);
+    }
+}
@@ -0,0 +1,125 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * A radix heap of vertices (see VertexHeap.java). This only works when keys are never smaller than the last key that was
+ * taken out of the heap ("monotone"), which is always true for Dijkstra's algorithm with non-negative edge weights: a
+ * vertex's distance is never less than the distance of the vertex we are currently visiting.
+ *
+ * The heap is 33 buckets. Bucket 0 holds vertices whose key equals last (the last key taken out). Bucket i (i >= 1) holds
+ * vertices whose key differs from last first at bit i - 1 (counting from the lowest bit), so buckets further along hold
+ * keys further away from last. When bucket 0 is empty, we find the first non-empty bucket, make its smallest key the new
+ * last and hand its vertices out again to the lower buckets. Every vertex can only ever move down through the buckets,
+ * so each vertex is moved at most 32 times in total.
+ *
+ * Each bucket is an int array of vertices. We keep the bucket and position of each vertex so that decrease-key can pull a
+ * vertex out of its bucket (by moving the last vertex in the bucket into its place) and drop it into a lower one.
+ */
+
+public class RadixHeap implements VertexHeap {
+    private static final int NUM_BUCKETS = 33;
+
+    private int[][] buckets; // buckets[b][0 .. bucketSize[b] - 1] are the vertices in bucket b
+    private int[] bucketSize;
+    private int[] bucketOf; // bucket each vertex is in (-1 if not in the heap)
+    private int[] position; // position of each vertex in its bucket
+    private int[] key; // current key of each vertex
+    private int last; // the last key taken out of the heap
+    private int size; // number of vertices in the heap
+
+    public RadixHeap(int capacity) {
+        buckets = new int[NUM_BUCKETS][];
+        for (int b = 0; b < NUM_BUCKETS; b++) {
+            buckets[b] = new int[4];
+        }
+        bucketSize = new int[NUM_BUCKETS];
+        bucketOf = new int[capacity];
+        position = new int[capacity];
+        key = new int[capacity];
+        Arrays.fill(bucketOf, -1);
+    }
+
+    public void insertOrDecrease(int vertex, int newKey) {
+        if (newKey < last) {
+            throw new IllegalArgumentException("RadixHeap keys must not go below the last key taken out (" + newKey + " < " + last + "). Negative edge weights?");
+        }
+        if (bucketOf[vertex] >= 0) {
+            if (newKey >= key[vertex]) return; // not a decrease
+            removeFromBucket(vertex);
+        } else {
+            size++;
+        }
+        key[vertex] = newKey;
+        addToBucket(vertex, bucketFor(newKey));
+    }
+
+    public int extractMin() {
+        if (bucketSize[0] == 0) {
+            // find the first non-empty bucket, its smallest key becomes last and its vertices get spread out over lower buckets
+            int b = 1;
+            while (bucketSize[b] == 0) b++;
+
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < bucketSize[b]; i++) {
+                min = Math.min(min, key[buckets[b][i]]);
+            }
+            last = min;
+
+            int count = bucketSize[b];
+            bucketSize[b] = 0;
+            for (int i = 0; i < count; i++) {
+                int vertex = buckets[b][i];
+                addToBucket(vertex, bucketFor(key[vertex]));
+            }
+        }
+
+        int vertex = buckets[0][--bucketSize[0]];
+        bucketOf[vertex] = -1;
+        size--;
+        return vertex;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int vertex) {
+        return bucketOf[vertex] >= 0;
+    }
+
+    public void clear() {
+        for (int b = 0; b < NUM_BUCKETS; b++) {
+            for (int i = 0; i < bucketSize[b]; i++) {
+                bucketOf[buckets[b][i]] = -1;
+            }
+            bucketSize[b] = 0;
+        }
+        size = 0;
+        last = 0;
+    }
+
+    // bucket 0 if key == last, otherwise 1 + the index of the highest bit where key and last differ
+    private int bucketFor(int key) {
+        return key == last ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ last);
+    }
+
+    private void addToBucket(int vertex, int b) {
+        if (bucketSize[b] == buckets[b].length) {
+            buckets[b] = Arrays.copyOf(buckets[b], bucketSize[b] * 2);
+        }
+        buckets[b][bucketSize[b]] = vertex;
+        bucketOf[vertex] = b;
+        position[vertex] = bucketSize[b];
+        bucketSize[b]++;
+    }
+
+    private void removeFromBucket(int vertex) {
+        int b = bucketOf[vertex];
+        int lastInBucket = buckets[b][--bucketSize[b]];
+        buckets[b][position[vertex]] = lastInBucket; // move the last vertex in the bucket into the hole
+        position[lastInBucket] = position[vertex];
+        bucketOf[vertex] = -1;
+    }
+}
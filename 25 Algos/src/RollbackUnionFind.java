@@ -0,0 +1,136 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * A union-find (see UnionFind.java) whose unions can be undone, last one first. This is what OfflineDynamicConnectivity.java
+ * is built on: it adds a batch of edges, answers questions, and then takes the batch out again.
+ *
+ * Path compression changes pointers all over a tree during finds, which would all have to be remembered to undo them, so
+ * here there is no compression at all. Union by rank on its own already keeps every tree at most log2(V) high, so a find is
+ * O(log V) (not quite the near constant of UnionFind.java, but a find no longer changes anything).
+ *
+ * A union then changes exactly one parent pointer (the lower root goes under the other root) and maybe one rank. We push the
+ * root that was linked onto a stack (with the top bit set if the rank of its new parent went up), and undoing is popping
+ * it off, making it a root again and lowering the rank back if needed. Unions that find u and v already together change
+ * nothing and push nothing.
+ *
+ * To undo back to some point: remember getHistorySize() then, and later call rollback() with that number.
+ */
+
+public class RollbackUnionFind {
+    private static final int RANK_CHANGED = 1 << 31;
+
+    private int[] parent;
+    private byte[] rank;
+    private int[] size; // number of vertices in the set, only kept up to date for roots
+    private int count; // number of sets
+    private int[] history; // the root linked by each union that is still in place (| RANK_CHANGED if its parent's rank went up)
+    private int historySize;
+
+    public static void main(String args[]) {
+        RollbackUnionFind sets = new RollbackUnionFind(6);
+        sets.union(0, 1);
+        sets.union(2, 3);
+        int mark = sets.getHistorySize();
+        sets.union(1, 3);
+        sets.union(4, 5);
+        Pr.x("Sets: " + sets.getCount() + ", 0 and 2 connected: " + sets.connected(0, 2) + ", 4 and 5 connected: " + sets.connected(4, 5));
+        sets.rollback(mark);
+        Pr.x("After rollback sets: " + sets.getCount() + ", 0 and 2 connected: " + sets.connected(0, 2) + ", 0 and 1 connected: "
+                + sets.connected(0, 1) + ", 4 and 5 connected: " + sets.connected(4, 5));
+    }
+
+    /**
+     * RollbackUnionFind - class constructor. Every vertex starts in a set of its own
+     *
+     * @param numNodes number of vertices (0 to numNodes - 1)
+     */
+    public RollbackUnionFind(int numNodes) {
+        parent = new int[numNodes];
+        rank = new byte[numNodes];
+        size = new int[numNodes];
+        for (int v = 0; v < numNodes; v++) {
+            parent[v] = v;
+            size[v] = 1;
+        }
+        count = numNodes;
+        history = new int[Math.max(1, numNodes - 1)]; // there can never be more than V - 1 unions in place
+    }
+
+    // root of the set v is in (no compression, the tree is left as it is)
+    public int find(int v) {
+        while (parent[v] != v) {
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * union - merge the sets of u and v (the lower ranked root goes under the other one) and remember it for rollback()
+     *
+     * @param u a vertex
+     * @param v a vertex
+     * @return boolean = true if u and v were in different sets (so they got merged), false if they were already in the same set
+     */
+    public boolean union(int u, int v) {
+        int rootU = find(u), rootV = find(v);
+        if (rootU == rootV) {
+            return false;
+        }
+        if (rank[rootU] < rank[rootV]) {
+            int swap = rootU;
+            rootU = rootV;
+            rootV = swap;
+        }
+        parent[rootV] = rootU;
+        size[rootU] += size[rootV];
+        int entry = rootV;
+        if (rank[rootU] == rank[rootV]) {
+            rank[rootU]++;
+            entry |= RANK_CHANGED;
+        }
+        history[historySize++] = entry;
+        count--;
+        return true;
+    }
+
+    /**
+     * rollback - undo the most recent unions until only historySize of them are left in place
+     *
+     * @param historySize a value getHistorySize() returned earlier
+     */
+    public void rollback(int historySize) {
+        while (this.historySize > historySize) {
+            int entry = history[--this.historySize];
+            int child = entry & ~RANK_CHANGED;
+            int root = parent[child];
+            parent[child] = child;
+            size[root] -= size[child];
+            if ((entry & RANK_CHANGED) != 0) {
+                rank[root]--;
+            }
+            count++;
+        }
+    }
+
+    // number of unions in place, to hand to rollback() later
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    public boolean connected(int u, int v) {
+        return find(u) == find(v);
+    }
+
+    // number of vertices in the set v is in
+    public int getSize(int v) {
+        return size[find(v)];
+    }
+
+    // number of disjoint sets
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,194 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * From Wikipedia:
+ * ======================================================================================================================================
+ * The Shortest Path Faster Algorithm (SPFA) is an improvement of the Bellman–Ford algorithm which computes single-source shortest
+ * paths in a weighted directed graph. The algorithm is believed to work well on random sparse graphs and is particularly suitable
+ * for graphs that contain negative-weight edges. However, the worst-case complexity of SPFA is the same as that of Bellman–Ford.
+ * ======================================================================================================================================
+ *
+ * Bellman-Ford relaxes every arc in every pass, but an arc out of u can only lower a distance if dist[u] went down since the
+ * last time its arcs were relaxed. So we keep a queue of the vertices whose distance went down and only relax their arcs,
+ * stopping when the queue is empty (every distance is final).
+ *
+ * Two tweaks change the order the queue is worked through so that vertices tend to get their final distance sooner:
+ *
+ * - SLF (Small Label First): a vertex going into the queue goes to the front instead of the back if its distance is smaller
+ *   than the distance of the vertex at the front.
+ * - LLL (Large Label Last): before taking the vertex at the front, move it to the back while its distance is bigger than the
+ *   average distance of the vertices in the queue.
+ *
+ * Negative cycles: we keep count of the number of edges on the path to each vertex (len[v] = len[prev[v]] + 1). A shortest
+ * path has at most n - 1 edges, so once some len[v] reaches n something is going round a negative cycle. The prev links
+ * further back can have changed since len[v] was worked out, so we follow them from v to make sure they really go round
+ * a cycle (every cycle made of prev links is negative, see BellmanFord.extractCycle()) and carry on if they don't.
+ */
+
+public class SPFA {
+    public static void main(String args[]) {
+        int[][] edges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, 4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+        int numVertices = 5;
+        int[] dist = new int[numVertices];
+        int[] prev = new int[numVertices];
+
+        if (calculateShortestPaths(dist, prev, new Graph(edges, numVertices, true, true), 0)) {
+            Pr.x("Distances: " + Arrays.toString(dist));
+            Pr.x("Previous vertices: " + Arrays.toString(prev));
+        }
+
+        int[][] negativeCycleEdges = {{0, 1, 10}, {0, 4, 3}, {1, 2, 2}, {1, 4, -4}, {2, 3, 9}, {3, 2, 7}, {4, 1, 1}, {4, 2, 8}, {4, 3, 2}};
+        Pr.x("Negative cycle: " + findNegativeCycle(new Graph(negativeCycleEdges, numVertices, true, true)));
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java SPFA benchmark
+        }
+    }
+
+    // the comparison with Bellman-Ford on 100k vertices, too slow for every run
+    private static void benchmark() {
+        // Timing against Bellman-Ford on a graph with negative edges but no negative cycles: weights are w + p[u] - p[v] with w >= 0,
+        // which changes the length of every path from s to t by the same p[s] - p[t], so no cycle can be negative
+        Random random = new Random(1);
+        int n = 100000;
+        int[] p = random.ints(n, 0, 1000).toArray();
+        int[][] randomEdges = new int[n * 5][];
+        for (int i = 0; i < randomEdges.length; i++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            randomEdges[i] = new int[] {u, v, random.nextInt(100) + p[u] - p[v]};
+        }
+        Graph wg = new Graph(randomEdges, n, true, true);
+        int[] dist = new int[n];
+        int[] prev = new int[n];
+        int[] check = new int[n];
+
+        long start = System.nanoTime();
+        BellmanFord.calculateShortestPaths(check, prev, wg, 0);
+        Pr.x("Bellman-Ford (stopping early): " + (System.nanoTime() - start) / 1000000 + "ms");
+        start = System.nanoTime();
+        calculateShortestPaths(dist, prev, wg, 0);
+        Pr.x("SPFA: " + (System.nanoTime() - start) / 1000000 + "ms, same distances: " + Arrays.equals(dist, check));
+    }
+
+    /**
+     * calculateShortestPaths - calculates the shortest path from the startVertex to all other vertices in the graph using SPFA
+     *
+     * @param dist filled with the distances from startVertex (Integer.MAX_VALUE if unreachable)
+     * @param prev filled with the previous vertex on the shortest path to each vertex (-1 for startVertex and unreachable vertices)
+     * @param wg weighted graph object
+     * @param startVertex the vertex we begin the search from
+     * @return boolean = false if a negative cycle can be reached from startVertex (dist and prev are then not meaningful), true otherwise
+     */
+    public static boolean calculateShortestPaths(int[] dist, int[] prev, Graph wg, int startVertex) {
+        return run(dist, prev, wg.getCSR(), startVertex) == -1;
+    }
+
+    /**
+     * findNegativeCycle - find a negative cycle anywhere in the graph (not just one reachable from a particular vertex). Works as if
+     * there was an extra vertex with a 0 weight arc to every vertex and we searched from that.
+     *
+     * @param wg weighted graph object
+     * @return List<Integer> of the vertices around the cycle in order (empty if the graph has no negative cycle)
+     */
+    public static List<Integer> findNegativeCycle(Graph wg) {
+        int n = wg.getNumNodes();
+        int[] dist = new int[n];
+        int[] prev = new int[n];
+        int v = run(dist, prev, wg.getCSR(), -1);
+        if (v == -1) {
+            return new ArrayList<Integer>();
+        }
+        return BellmanFord.extractCycle(prev, v);
+    }
+
+    /**
+     * run - the queue based relaxation
+     *
+     * @param startVertex the vertex to search from, or -1 to start from every vertex at distance 0
+     * @return -1 if there is no negative cycle, otherwise a vertex whose prev links lead into a negative cycle
+     */
+    private static int run(int[] dist, int[] prev, CSRGraph csr, int startVertex) {
+        int n = csr.getNumNodes();
+        int[] len = new int[n]; // number of edges on the path to each vertex
+        boolean[] inQueue = new boolean[n];
+        int[] queue = new int[n + 1]; // circular deque. Each vertex is in it at most once, so n + 1 slots is always enough
+        int head = 0, size = 0;
+        long queueSum = 0; // sum of the distances of the vertices in the queue (for LLL)
+
+        Arrays.fill(prev, -1);
+        if (startVertex == -1) {
+            Arrays.fill(dist, 0);
+            for (int v = 0; v < n; v++) {
+                queue[size++] = v;
+                inQueue[v] = true;
+            }
+        } else {
+            Arrays.fill(dist, Integer.MAX_VALUE);
+            dist[startVertex] = 0;
+            queue[size++] = startVertex;
+            inQueue[startVertex] = true;
+        }
+
+        while (size > 0) {
+            // LLL: send big distances to the back (at most once round the queue)
+            for (int i = 0; i < size && (long) dist[queue[head]] * size > queueSum; i++) {
+                int v = queue[head];
+                head = (head + 1) % queue.length;
+                queue[(head + size - 1) % queue.length] = v;
+            }
+
+            int u = queue[head];
+            head = (head + 1) % queue.length;
+            size--;
+            inQueue[u] = false;
+            queueSum -= dist[u];
+
+            for (int arc = csr.getOffset(u); arc < csr.getOffset(u + 1); arc++) {
+                int v = csr.getTarget(arc);
+                int newDist = dist[u] + csr.getWeight(arc);
+                if (newDist >= dist[v]) continue;
+
+                if (inQueue[v]) {
+                    queueSum -= dist[v] - newDist; // v's distance in the queue goes down
+                }
+                dist[v] = newDist;
+                prev[v] = u;
+                len[v] = len[u] + 1;
+                if (len[v] >= n) {
+                    // len[v] counts the edges on the path v was reached by, but prev links further back may have changed since.
+                    // If following them from v still goes round a cycle, that cycle is negative. If not, len[v] was out of date
+                    len[v] = pathLength(prev, v);
+                    if (len[v] >= n) {
+                        return v;
+                    }
+                }
+
+                if (!inQueue[v]) {
+                    inQueue[v] = true;
+                    queueSum += newDist;
+                    if (size > 0 && newDist < dist[queue[head]]) {
+                        head = (head - 1 + queue.length) % queue.length; // SLF: small distance goes to the front
+                        queue[head] = v;
+                    } else {
+                        queue[(head + size) % queue.length] = v;
+                    }
+                    size++;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // number of prev links from v until there are no more, or prev.length if they go round a cycle
+    private static int pathLength(int[] prev, int v) {
+        int length = 0;
+        while (prev[v] != -1 && length < prev.length) {
+            v = prev[v];
+            length++;
+        }
+        return length;
+    }
+}
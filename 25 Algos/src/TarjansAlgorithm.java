@@ -0,0 +1,103 @@
+import java.util.*;
+
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * From Wikipedia:
+ * ======================================================================================================================================
+ * Tarjan's strongly connected components algorithm is an algorithm in graph theory for finding the strongly connected components
+ * (SCCs) of a directed graph. It runs in linear time, matching the time bound for alternative methods including Kosaraju's
+ * algorithm and the path-based strong component algorithm.
+ * ======================================================================================================================================
+ *
+ * A strongly connected component is a largest set of vertices where every vertex can reach every other one. One depth first
+ * search (DepthFirstTraversal.java) over the whole graph finds them all:
+ *
+ * - each vertex gets an index (the order it was discovered in) and goes onto a separate stack of vertices not yet put in a
+ *   component
+ * - low[v] is the smallest index v can get back to through its DFS subtree plus one arc to a vertex still on that stack
+ * - when v finishes with low[v] == index[v], nothing below v gets back above it, so v and everything above it on the stack
+ *   is a component. They come off the stack together
+ *
+ * Components are numbered in the order they are completed, which is a reverse topological order of the graph of components
+ * (a component only points to components with lower numbers).
+ */
+
+public class TarjansAlgorithm {
+    public static void main(String args[]) {
+        int[][] edges = {{0, 1}, {1, 2}, {2, 0}, {1, 3}, {3, 4}, {4, 5}, {5, 3}, {6, 5}, {6, 7}, {7, 6}};
+        Graph g = new Graph(edges, 8, true, false); // create new directed, unweighted graph (true, false)
+        int[] component = stronglyConnectedComponents(g);
+        Pr.x("Components: " + Arrays.toString(component));
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java TarjansAlgorithm benchmark
+        }
+    }
+
+    // components of a 1M vertex random graph, too big to build every time the demo runs
+    private static void benchmark() {
+        // A random graph with 1M vertices and 2M arcs, far too deep for a recursive DFS
+        Random random = new Random(1);
+        int n = 1000000, m = 2000000;
+        int[] sources = new int[m], dests = new int[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = random.nextInt(n);
+            dests[i] = random.nextInt(n);
+        }
+        Graph g = new Graph(new CSRGraph(n, sources, dests, new int[m], m, true, false));
+        long start = System.nanoTime();
+        int[] component = stronglyConnectedComponents(g);
+        int numComponents = Arrays.stream(component).max().getAsInt() + 1;
+        Pr.x(numComponents + " components in " + (System.nanoTime() - start) / 1000000 + "ms");
+    }
+
+    /**
+     * stronglyConnectedComponents - find the strongly connected components of a directed graph
+     *
+     * @param g directed graph
+     * @return int[] with the component number of each vertex (0 .. number of components - 1, in reverse topological order)
+     */
+    public static int[] stronglyConnectedComponents(Graph g) {
+        int n = g.getCSR().getNumNodes();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] component = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        Arrays.fill(component, -1);
+
+        DepthFirstTraversal.depthFirstSearchAll(g, new DFSVisitor() {
+            int nextIndex = 0, top = 0, nextComponent = 0;
+
+            public void discover(int v, int parent) {
+                index[v] = low[v] = nextIndex++;
+                stack[top++] = v;
+                onStack[v] = true;
+            }
+
+            public void nonTreeEdge(int u, int v) {
+                if (onStack[v]) { // v is in u's component. Finished vertices in other components don't count
+                    low[u] = Math.min(low[u], index[v]);
+                }
+            }
+
+            public void finish(int v, int parent) {
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--top];
+                        onStack[w] = false;
+                        component[w] = nextComponent;
+                    } while (w != v);
+                    nextComponent++;
+                }
+                if (parent != -1) {
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        });
+        return component;
+    }
+}
@@ -1,4 +1,7 @@
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.IntStream;
 
 /*
  * Author: Gregory Dott
@@ -18,83 +21,166 @@ import java.util.*;
  * the eventual topological sort. First, find a list of "start nodes" which have no incoming edges and insert 
  * them into a set S; at least one such node must exist in a non-empty acyclic graph. 
  * ===========================================================================================================
+ * 
+ * Instead of removing edges from the graph, we count the in-degree of every vertex once (one pass over the arcs) and
+ * "remove" the arcs out of a vertex by lowering the counts of the vertices they point to. A vertex whose count gets to
+ * 0 goes into the queue of vertices to output. Every vertex and every arc is handled once, so it is O(V + E), and the
+ * graph is never changed. If there is a cycle, the vertices on it (and everything after them) never get to 0, so fewer
+ * than V vertices come out.
+ * 
+ * Layers: vertices with no incoming edge are layer 0, and each other vertex is in the layer after the last of the
+ * vertices pointing to it (the length of the longest path to it). No edge goes between two vertices of the same layer
+ * (each layer is an "antichain"), so all the tasks of a layer can run at the same time once the layers before it are done.
+ * Big layers are worked out in parallel: each vertex of the layer lowers the counts of its neighbours with an atomic
+ * decrement, and the thread that takes a count to 0 adds that vertex to the next layer.
  */
 
 public class TopologicalSort {
+    private static final int PARALLEL_LAYER_SIZE = 4096; // smaller layers are quicker to do on one thread
 
     public static void main(String args[]) {
         int[][] edges =  {{0, 6}, {1, 2}, {1, 4}, {1, 6}, {3, 0}, {3, 4}, {5, 1}, {7, 0}, {7, 1}};
         Graph g = new Graph(edges, 8, true, false); // create new directed, unweighted graph (true, false)
         List<Integer> sortedVertices = kahnTopologicalSort(g);
         Pr.x(sortedVertices.toString());
+
+        int[][] layers = kahnLayers(g, ForkJoinPool.commonPool());
+        for (int i = 0; i < layers.length; i++) {
+            Pr.x("Layer " + i + ": " + Arrays.toString(layers[i]));
+        }
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java TopologicalSort benchmark
+        }
+    }
+
+    // timing on a big random DAG, too slow to run every time the demo runs
+    private static void benchmark() {
+        // A random DAG with 2M vertices and 10M edges (every edge goes from a lower to a higher position in a random order)
+        Random random = new Random(1);
+        int n = 2000000, m = 10000000;
+        int[] position = new int[n];
+        for (int v = 0; v < n; v++) {
+            int other = random.nextInt(v + 1);
+            position[v] = position[other];
+            position[other] = v;
+        }
+        int[] sources = new int[m], dests = new int[m];
+        for (int i = 0; i < m; i++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            if (a == b) b = (b + 1) % n;
+            sources[i] = position[Math.min(a, b)];
+            dests[i] = position[Math.max(a, b)];
+        }
+        Graph g = new Graph(new CSRGraph(n, sources, dests, new int[m], m, true, false));
+        sources = dests = null;
+
+        long start = System.nanoTime();
+        int[] order = topologicalOrder(g);
+        Pr.x("Sorted " + order.length + " vertices in " + (System.nanoTime() - start) / 1000000 + "ms");
+        start = System.nanoTime();
+        int[][] layers = kahnLayers(g, ForkJoinPool.commonPool());
+        Pr.x(layers.length + " layers in " + (System.nanoTime() - start) / 1000000 + "ms");
     }
-    
+
     /**
+     * kahnTopologicalSort - Kahn's algorithm, as a list
      * 
-     * @param g Graph object
-     * @return
+     * @param g Graph object (not changed)
+     * @return List<Integer> of the vertices in topological order (missing the vertices on or after a cycle, if there is one)
      */
-    private static List<Integer> kahnTopologicalSort(Graph g) {
+    public static List<Integer> kahnTopologicalSort(Graph g) {
         List<Integer> sortedVertices = new ArrayList<Integer>();
-        List<Integer> noIncomingEdge = new ArrayList<Integer>(); // list of vertices with no incoming edge
-        getVerticesWithNoIncomingEdges(g, noIncomingEdge, sortedVertices); // list of vertices with no incoming edge
-        
-        while (!noIncomingEdge.isEmpty()) {
-            int vertex = noIncomingEdge.get(0);
-            sortedVertices.add(vertex);
-            noIncomingEdge.remove(0);
-            // remove all edges coming from this vertex now...
-            removeEdgesForVertex(vertex, g);
-            getVerticesWithNoIncomingEdges(g, noIncomingEdge, sortedVertices); // update list of vertices to visit next after having removed edges from previous vertex
+        for (int v: topologicalOrder(g)) {
+            sortedVertices.add(v);
         }
-
         return sortedVertices;
     }
 
     /**
-     * removeEdgesForVertex - removes the outgoing edges from vertex in the graph g
+     * topologicalOrder - Kahn's algorithm with in-degree counts. O(V + E)
      * 
-     * @param vertex the vertex for which we want to remove all outgoing edges
-     * @param g Graph object
+     * @param g Graph object (not changed)
+     * @return int[] of the vertices in topological order. Shorter than the number of vertices if the graph has a cycle
      */
-    private static void removeEdgesForVertex(int vertex, Graph g) {
-        List<Edge> edgeList = g.getEdgeList();
-        List<Edge> toRemove = new ArrayList<Edge>();
-        for (Edge edge: edgeList) {
-            if (edge.getSource() == vertex) {
-                toRemove.add(edge);
+    public static int[] topologicalOrder(Graph g) {
+        CSRGraph csr = g.getCSR();
+        int n = csr.getNumNodes();
+        int[] inDegree = inDegrees(csr);
+        int[] queue = new int[n]; // vertices with no incoming edges left, in the order they are output
+        int head = 0, tail = 0;
+
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) queue[tail++] = v;
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            for (int arc = csr.getOffset(u); arc < csr.getOffset(u + 1); arc++) {
+                int v = csr.getTarget(arc);
+                if (--inDegree[v] == 0) { // that was the last edge into v
+                    queue[tail++] = v;
+                }
             }
         }
-        // Seeing as we are using the enhanced for-loop we can't just remove the edge while looping as this will cause a concurrent modification exception
-        edgeList.removeAll(toRemove);
-        g.updateAdjList();
+        return tail == n ? queue : Arrays.copyOf(queue, tail);
     }
 
     /**
-     * getVerticesWithNoIncomingEdges - there are 2 ways we can do this as far as I can tell. This is one.
-     * The other can be done when creating the graph and making the adjacency list. We can basically create a reverse
-     * adjacency list in that case. Probably less processing, but makes graph class a touch more confusing, so doing
-     * it this way.
+     * kahnLayers - group the vertices into layers that can each be run in parallel (see the top of the file)
      * 
-     * @param g Graph object containing our graph data
-     * @return
+     * @param g Graph object (not changed)
+     * @param pool the threads to work out big layers on
+     * @return int[][] of the layers in order (missing the vertices on or after a cycle, if there is one). The order of the
+     * vertices within a big layer depends on the threads
      */
-    private static void getVerticesWithNoIncomingEdges(Graph g, List<Integer> noIncomingEdge, List<Integer> sortedVertices) {
-        List<List<Integer>> adjList = g.getAdjList();
-        List<Integer> nodeList = new ArrayList<Integer>(g.getNodeList());
+    public static int[][] kahnLayers(Graph g, ForkJoinPool pool) {
+        CSRGraph csr = g.getCSR();
+        int n = csr.getNumNodes();
+        int[] degrees = inDegrees(csr);
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(degrees);
+        List<int[]> layers = new ArrayList<int[]>();
 
-        for (List<Integer> neighbours: adjList) {
-            for (Integer neighbour: neighbours) {
-                if (nodeList.contains(neighbour)) {
-                    nodeList.remove(nodeList.indexOf(neighbour));
+        // all the layers go one after the other in order[]. Layer i is order[layerStart .. layerEnd)
+        int[] order = new int[n];
+        int layerEnd = 0;
+        for (int v = 0; v < n; v++) {
+            if (degrees[v] == 0) order[layerEnd++] = v;
+        }
+        int layerStart = 0;
+        AtomicInteger nextEnd = new AtomicInteger(layerEnd);
+
+        while (layerStart < layerEnd) {
+            final int from = layerStart, to = layerEnd;
+            if (to - from >= PARALLEL_LAYER_SIZE) {
+                pool.submit(() -> IntStream.range(from, to).parallel().forEach(i -> releaseNeighbours(csr, order[i], inDegree, order, nextEnd))).join();
+            } else {
+                for (int i = from; i < to; i++) {
+                    releaseNeighbours(csr, order[i], inDegree, order, nextEnd);
                 }
             }
+            layers.add(Arrays.copyOfRange(order, from, to));
+            layerStart = to;
+            layerEnd = nextEnd.get();
         }
+        return layers.toArray(new int[0][]);
+    }
 
-        for (Integer node: nodeList) {
-            if (!noIncomingEdge.contains(node) && !sortedVertices.contains(node)) {
-                noIncomingEdge.add(node);
+    // take the arcs out of u off the in-degree counts, and add the vertices that get to 0 to the end of order
+    private static void releaseNeighbours(CSRGraph csr, int u, AtomicIntegerArray inDegree, int[] order, AtomicInteger nextEnd) {
+        for (int arc = csr.getOffset(u); arc < csr.getOffset(u + 1); arc++) {
+            int v = csr.getTarget(arc);
+            if (inDegree.decrementAndGet(v) == 0) {
+                order[nextEnd.getAndIncrement()] = v;
             }
         }
     }
-}
\ No newline at end of file
+
+    // number of arcs into each vertex, in one pass over the arcs
+    private static int[] inDegrees(CSRGraph csr) {
+        int[] inDegree = new int[csr.getNumNodes()];
+        for (int arc = 0; arc < csr.getNumArcs(); arc++) {
+            inDegree[csr.getTarget(arc)]++;
+        }
+        return inDegree;
+    }
+}
@@ -3,94 +3,150 @@ import java.util.*;
 /*
  * Author: Gregory Dott
  * 27-10-2022
- * 
+ *
  * From Wikipedia:
  * =============================================================================================================================
- * In computer science, a disjoint-set data structure, also called a union–find data structure or merge–find set, is a data 
- * structure that stores a collection of disjoint (non-overlapping) sets. Equivalently, it stores a partition of a set into 
- * disjoint subsets. It provides operations for adding new sets, merging sets (replacing them by their union), and finding 
- * a representative member of a set. The last operation makes it possible to find out efficiently if any two elements are in 
+ * In computer science, a disjoint-set data structure, also called a union–find data structure or merge–find set, is a data
+ * structure that stores a collection of disjoint (non-overlapping) sets. Equivalently, it stores a partition of a set into
+ * disjoint subsets. It provides operations for adding new sets, merging sets (replacing them by their union), and finding
+ * a representative member of a set. The last operation makes it possible to find out efficiently if any two elements are in
  * the same or different sets.
  * =============================================================================================================================
- * 
- * This was implemented as part of implementing Kruskals Algorithm, so the implementation is particular to a weighted graph.
+ *
+ * This was first implemented as part of Kruskals Algorithm, as a List<UFNode> where find() walked up the parent pointers
+ * and union() turned one whole tree upside down onto the other. On bad inputs the trees become long chains, so a find or a
+ * union could take O(V) and Kruskal got to O(E * V).
+ *
+ * Now the forest is kept in two primitive arrays:
+ *
+ * - parent[v] which is the parent of v in its tree (v itself if v is a root, the root being the representative of the set)
+ * - rank[v] which is an upper bound on the height of the tree under v (only looked at for roots). It never goes above
+ *   log2(V), so a byte is plenty
+ *
+ * and two tricks keep the trees flat:
+ *
+ * - union by rank: the root of the lower tree goes under the root of the higher one, so a tree of height h has at least
+ *   2^h vertices
+ * - path halving: on the way up in find(), every vertex we pass gets pointed at its grandparent. Done over and over this
+ *   squashes the paths that get used (about as well as full path compression, but in one pass and without a stack)
+ *
+ * Together each operation is O(alpha(V)) amortised, where alpha is the inverse Ackermann function (at most 4 for any V
+ * that fits in memory), so it's constant in practice. We also keep the size of each set (at its root) and the number of
+ * sets, so both can be asked for in O(1) after a find.
  */
 
 public class UnionFind {
-    
+    private int[] parent;
+    private byte[] rank;
+    private int[] size; // number of vertices in the set, only kept up to date for roots
+    private int count; // number of sets
+
+    public static void main(String args[]) {
+        UnionFind sets = new UnionFind(10);
+        sets.union(0, 1);
+        sets.union(2, 3);
+        sets.union(1, 3);
+        sets.union(5, 6);
+        Pr.x("Sets: " + sets.getCount() + ", 0 and 2 connected: " + sets.connected(0, 2) + ", 0 and 5 connected: " + sets.connected(0, 5));
+        Pr.x("Size of the set of 3: " + sets.getSize(3) + ", size of the set of 9: " + sets.getSize(9));
+
+        if (args.length > 0 && args[0].equals("benchmark")) {
+            benchmark(); // only when asked for: java UnionFind benchmark
+        }
+    }
+
+    // timing on 1M vertices, too slow to run every time the demo runs
+    private static void benchmark() {
+        // 10M random unions (and so 20M finds) on 1M vertices, and a chain of unions that made the old version O(V) per find
+        Random random = new Random(1);
+        int n = 1000000;
+        UnionFind sets = new UnionFind(n);
+        long start = System.nanoTime();
+        for (int i = 0; i < 10000000; i++) {
+            sets.union(random.nextInt(n), random.nextInt(n));
+        }
+        Pr.x("10M random unions: " + (System.nanoTime() - start) / 1000000 + "ms, sets left: " + sets.getCount());
+
+        sets = new UnionFind(n);
+        start = System.nanoTime();
+        for (int v = 1; v < n; v++) {
+            sets.union(v - 1, v);
+            sets.find(0);
+        }
+        Pr.x("Chain of 1M unions with a find at the far end each time: " + (System.nanoTime() - start) / 1000000 + "ms, size: " + sets.getSize(0));
+    }
+
     /**
-     * makeSet - makes a new set (linked list) with the node as its own parent for starters
-     * This gets added to a List<UFNode> to keep track of the linked lists for all the nodes in the graph
-     * 
-     * @param node the node number
-     * @return UFNode instance
+     * UnionFind - class constructor. Every vertex starts in a set of its own (MAKE-SET for each of them)
+     *
+     * @param numNodes number of vertices (0 to numNodes - 1)
      */
-    public static UFNode makeSet(int node) {
-        UFNode ufNode = new UFNode(node, node); // Initialise the node as the root of its own tree
-        return ufNode;
+    public UnionFind(int numNodes) {
+        parent = new int[numNodes];
+        rank = new byte[numNodes];
+        size = new int[numNodes];
+        for (int v = 0; v < numNodes; v++) {
+            parent[v] = v;
+            size[v] = 1;
+        }
+        count = numNodes;
     }
 
     /**
-     * find - given a node and the List<UFNode> of all the other nodes, find the root of this node by traversing the linked list
-     * 
-     * @param node a node index
-     * @param forest List<UFNode> containing a UFNode for each node in the graph
-     * @return the index of the origin/root node for the given node
+     * find - the root (representative) of the set v is in. Halves the path from v to the root on the way
+     *
+     * @param v a vertex
+     * @return the root of the set containing v
      */
-    public static int find(int node, List<UFNode> forest) {
-        UFNode currentNode = forest.get(node);
-        
-        while(currentNode.getParent() != currentNode.getNode()) { // while we have not found the root of the tree
-            currentNode = forest.get(currentNode.getParent());
+    public int find(int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]]; // skip a level: point v at its grandparent
+            v = parent[v];
         }
-        
-        return currentNode.getNode();
+        return v;
     }
 
-    // when doing a union, we take one node's tree and turn it upside down and connect it to the other node.
-    // at this point, we know there is an edge between source and dest that does not create a cycle and that it is the optimal node to add for the
-    // minimum spanning tree. It does not matter where the root is, so we just use the first node's root
-    // For purposes other than ours (Kruskal's Algo for now), we might want to look at which tree we merge into which
-    // However, seeing as we are constructing a MST, this does not matter here.
-
     /**
-     * union - This union assumes that we have already checked that the 2 nodes in the edge given do not share the same root
-     * So we don't check for that here
-     * In the current implementation, we don't worry about the order in which we merge things together,
-     * as the end result will be identical regardless (at least in terms of the total weight of the MST). Depending on edge weights provided,
-     * we could have 2 or more different MST's for the same graph though interestingly. 
-     * This will have an impact on performance for much larger graphs if we have to traverse very deep trees.
-     * I imagine we could have the task of finding the deepest MST or the shallowest MST (most sensible and efficient) for a graph. In these cases it would be necessary
-     * to store size/rank on UFNodes. This has not been done in this case, so efficiency has not been fully optimised.
-     * 
-     * @param edge the current edge we want to add to the MST
-     * @param forest the list of UFNodes
-     * @param wg our weighted graph (we alter this by updating the MST)
+     * union - merge the sets of u and v (the lower ranked root goes under the other one)
+     *
+     * @param u a vertex
+     * @param v a vertex
+     * @return boolean = true if u and v were in different sets (so they got merged), false if they were already in the same set
      */
-    public static void union(Edge edge, List<UFNode> forest, Graph wg) {
-        UFNode currentNode = forest.get(edge.getDest()); // get UFNode for edge dest
-        UFNode previousNode = forest.get(edge.getSource()); // get UFNode for edge source
+    public boolean union(int u, int v) {
+        int rootU = find(u), rootV = find(v);
+        if (rootU == rootV) {
+            return false;
+        }
+        if (rank[rootU] < rank[rootV]) {
+            int swap = rootU;
+            rootU = rootV;
+            rootV = swap;
+        }
+        parent[rootV] = rootU; // rootU is now the higher (or equal) ranked root
+        size[rootU] += size[rootV];
+        if (rank[rootU] == rank[rootV]) {
+            rank[rootU]++;
+        }
+        count--;
+        return true;
+    }
 
-        int oldParent;
-        boolean reachedRoot = false;
-        
-        /*
-         * Below we basically take two linked lists and merge them.
-         * We keep the one associated with the source node intact and then we turn the other one upside and append it to the source node
-         */
-        do {
-            if (currentNode.getParent() == currentNode.getNode()) { // UFNode with parent as same value is a root
-                reachedRoot = true;
-            }
-            
-            oldParent = currentNode.getParent(); // get the parent of the current node (so that we can visit that node next)
-            currentNode.setParent(previousNode.getNode()); // set the parent of the current node to its new parent (part of inverting the tree)
+    public boolean connected(int u, int v) {
+        return find(u) == find(v);
+    }
+
+    // number of vertices in the set v is in
+    public int getSize(int v) {
+        return size[find(v)];
+    }
+
+    // number of disjoint sets (connected components if every edge of a graph has been union'ed)
+    public int getCount() {
+        return count;
+    }
 
-            previousNode = currentNode;
-            currentNode = forest.get(oldParent); // move to old parent so we can make the node we just dealt with into its parent
-            
-        } while (!reachedRoot);
-       
-        wg.updateMinSpanningTree(edge); // update the MST on the WeightedGraph object
+    public int getNumNodes() {
+        return parent.length;
     }
-}
\ No newline at end of file
+}
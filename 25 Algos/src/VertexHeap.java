@@ -0,0 +1,41 @@
+/*
+ * Author: agent
+ * 17-10-2026
+ *
+ * A min priority queue of vertices, keyed by an int (usually the current distance of the vertex). Each vertex can be in
+ * the queue at most once, so instead of adding a vertex again when we find a shorter path to it, we lower its key
+ * (decrease-key). This keeps the queue at most V long.
+ *
+ * Vertices are numbered 0 .. capacity - 1, so the implementations can keep their bookkeeping in plain int arrays indexed
+ * by vertex rather than in maps.
+ *
+ * Implementations:
+ * - IndexedBinaryHeap: the standard choice. O(log V) for everything.
+ * - RadixHeap: for non-negative integer keys that never go below the last key taken out (which is the case in Dijkstra).
+ *   Amortised O(log C) per vertex where C is the largest edge weight. Very cache friendly.
+ * - PairingHeap: O(1) insert, very cheap decrease-key in practice, O(log V) amortised extractMin.
+ */
+
+public interface VertexHeap {
+    /**
+     * insertOrDecrease - add vertex with the given key, or lower its key if it is already in the queue and key is smaller
+     *
+     * @param vertex the vertex
+     * @param key the (new) key of the vertex
+     */
+    void insertOrDecrease(int vertex, int key);
+
+    /**
+     * extractMin - remove the vertex with the smallest key from the queue
+     *
+     * @return the vertex with the smallest key
+     */
+    int extractMin();
+
+    boolean isEmpty();
+
+    boolean contains(int vertex);
+
+    // empty the queue so that it can be used again (e.g. for the next source vertex)
+    void clear();
+}